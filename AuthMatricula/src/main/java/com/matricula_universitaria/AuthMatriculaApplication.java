@@ -2,8 +2,10 @@ package com.matricula_universitaria;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AuthMatriculaApplication {
 
 	public static void main(String[] args) {
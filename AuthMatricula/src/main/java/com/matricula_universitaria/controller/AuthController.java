@@ -4,6 +4,7 @@ import com.matricula_universitaria.dto.AuthUserResponseDto;
 import com.matricula_universitaria.dto.GoogleLoginRequest;
 import com.matricula_universitaria.dto.JwtResponse;
 import com.matricula_universitaria.dto.LoginRequest;
+import com.matricula_universitaria.dto.RefreshRequest;
 import com.matricula_universitaria.dto.RegisterRequest;
 import com.matricula_universitaria.service.AuthAuthenticationService;
 import jakarta.validation.Valid;
@@ -41,6 +42,12 @@ public class AuthController {
         return ResponseEntity.ok(jwt);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        JwtResponse jwt = authService.refresh(request);
+        return ResponseEntity.ok(jwt);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<AuthUserResponseDto> me(Authentication authentication) {
         String username = authentication.getName();
@@ -7,6 +7,7 @@ public record JwtResponse(
         String type,
         String username,
         String email,
-        Set<String> roles
+        Set<String> roles,
+        String refreshToken
 ) {
 }
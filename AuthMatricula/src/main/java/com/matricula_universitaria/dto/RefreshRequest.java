@@ -0,0 +1,8 @@
+package com.matricula_universitaria.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank String refreshToken
+) {
+}
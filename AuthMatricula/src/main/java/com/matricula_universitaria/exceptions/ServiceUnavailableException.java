@@ -0,0 +1,17 @@
+package com.matricula_universitaria.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends CustomException {
+
+    private final long retryAfterSegundos;
+
+    public ServiceUnavailableException(String message, long retryAfterSegundos) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
@@ -0,0 +1,10 @@
+package com.matricula_universitaria.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class UnauthorizedException extends CustomException {
+
+    public UnauthorizedException(String message) {
+        super(message, HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,38 @@
+package com.matricula_universitaria.repository;
+
+import com.matricula_universitaria.entity.AuthRefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AuthRefreshTokenRepository extends JpaRepository<AuthRefreshToken, Long> {
+
+    /** El token con su usuario, roles y permisos: todo lo necesario para emitir el nuevo access token. */
+    @Query("SELECT t FROM AuthRefreshToken t JOIN FETCH t.user u "
+            + "LEFT JOIN FETCH u.userRoles ur LEFT JOIN FETCH ur.role r "
+            + "LEFT JOIN FETCH r.rolePermissions rp LEFT JOIN FETCH rp.permission "
+            + "WHERE t.tokenHash = :tokenHash")
+    Optional<AuthRefreshToken> findConUsuarioByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /** Marca el token como usado; devuelve 0 si otra petición ya lo había usado o revocado. */
+    @Modifying
+    @Query("UPDATE AuthRefreshToken t SET t.revocado = true WHERE t.id = :id AND t.revocado = false")
+    int marcarUsado(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE AuthRefreshToken t SET t.revocado = true WHERE t.familia = :familia AND t.revocado = false")
+    int revocarFamilia(@Param("familia") UUID familia);
+
+    @Modifying
+    @Query("UPDATE AuthRefreshToken t SET t.revocado = true WHERE t.user.id = :userId AND t.revocado = false")
+    int revocarPorUsuario(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM AuthRefreshToken t WHERE t.expiraEn < :limite")
+    int eliminarExpirados(@Param("limite") LocalDateTime limite);
+}
@@ -2,7 +2,11 @@ package com.matricula_universitaria.repository;
 
 import com.matricula_universitaria.entity.AuthUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface AuthUserRepository extends JpaRepository<AuthUser, Long> {
@@ -12,4 +16,21 @@ public interface AuthUserRepository extends JpaRepository<AuthUser, Long> {
     Optional<AuthUser> findByEmailIgnoreCase(String email);
 
     Optional<AuthUser> findByFirebaseUid(String firebaseUid);
+
+    /**
+     * Usuario por username o email con sus roles y los permisos de cada rol en una sola consulta. Puede devolver
+     * dos usuarios si el username de uno coincide con el email de otro.
+     */
+    @Query("SELECT DISTINCT u FROM AuthUser u "
+            + "LEFT JOIN FETCH u.userRoles ur LEFT JOIN FETCH ur.role r "
+            + "LEFT JOIN FETCH r.rolePermissions rp LEFT JOIN FETCH rp.permission "
+            + "WHERE LOWER(u.username) = LOWER(:login) OR LOWER(u.email) = LOWER(:login)")
+    List<AuthUser> findConRolesYPermisos(@Param("login") String usernameOrEmail);
+
+    @Modifying
+    @Query("UPDATE AuthUser u SET u.password = :password WHERE u.id = :id")
+    int actualizarPassword(@Param("id") Long id, @Param("password") String password);
+
+    @Query("SELECT u.activo FROM AuthUser u WHERE u.username = :username")
+    Optional<Boolean> findActivoByUsername(@Param("username") String username);
 }
@@ -7,18 +7,21 @@ import com.matricula_universitaria.entity.AuthUserRole;
 import com.matricula_universitaria.repository.AuthUserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-public class AuthUserDetailsService implements UserDetailsService {
+public class AuthUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AuthUserRepository userRepository;
 
@@ -26,27 +29,36 @@ public class AuthUserDetailsService implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    /** Una sola consulta: el usuario por username o email, con roles y permisos. */
     @Override
     @Transactional(readOnly = true)
-    public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        AuthUser user = userRepository.findByUsernameIgnoreCase(usernameOrEmail)
-                .or(() -> userRepository.findByEmailIgnoreCase(usernameOrEmail))
+    public UsuarioAutenticado loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
+        List<AuthUser> candidatos = userRepository.findConRolesYPermisos(usernameOrEmail);
+        // Como en la búsqueda anterior, un username exacto tiene prioridad sobre un email.
+        AuthUser user = candidatos.stream()
+                .filter(u -> u.getUsername().equalsIgnoreCase(usernameOrEmail))
+                .findFirst()
+                .or(() -> candidatos.stream().findFirst())
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + usernameOrEmail));
 
-        Set<GrantedAuthority> authorities = buildAuthorities(user);
+        return new UsuarioAutenticado(user, buildAuthorities(user));
+    }
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Boolean.TRUE.equals(user.getActivo()),
-                true,
-                true,
-                true,
-                authorities
-        );
+    /** Guarda el hash regenerado con el costo BCrypt actual tras un login correcto. */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (user instanceof UsuarioAutenticado autenticado) {
+            userRepository.actualizarPassword(autenticado.getUsuario().getId(), newPassword);
+            autenticado.getUsuario().setPassword(newPassword);
+            return new UsuarioAutenticado(autenticado.getUsuario(), autenticado.getAuthorities());
+        }
+        userRepository.findByUsernameIgnoreCase(user.getUsername())
+                .ifPresent(entity -> entity.setPassword(newPassword));
+        return User.withUserDetails(user).password(newPassword).build();
     }
 
-    private Set<GrantedAuthority> buildAuthorities(AuthUser user) {
+    public Set<GrantedAuthority> buildAuthorities(AuthUser user) {
         Set<GrantedAuthority> authorities = new HashSet<>();
 
         for (AuthUserRole userRole : user.getUserRoles()) {
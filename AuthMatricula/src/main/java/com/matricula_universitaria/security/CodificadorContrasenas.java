@@ -0,0 +1,145 @@
+package com.matricula_universitaria.security;
+
+import com.matricula_universitaria.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt en un pool propio del tamaño de la CPU con cola acotada. Así una avalancha de logins o registros no ocupa
+ * todos los hilos de Tomcat haciendo hashing: el resto de endpoints sigue teniendo CPU, y cuando la cola se llena
+ * o la espera supera {@code security.bcrypt.espera-maxima-ms} se responde 503 enseguida.
+ */
+@Component
+public class CodificadorContrasenas implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int costo;
+    private final int hilos;
+    private final long esperaMaximaMs;
+    private final ThreadPoolExecutor ejecutor;
+
+    private final Timer codificacion;
+    private final Timer verificacion;
+    private final Counter rechazos;
+
+    public CodificadorContrasenas(MeterRegistry meterRegistry,
+                                  @Value("${security.bcrypt.costo:10}") int costo,
+                                  @Value("${security.bcrypt.hilos:0}") int hilos,
+                                  @Value("${security.bcrypt.capacidad-cola:50}") int capacidadCola,
+                                  @Value("${security.bcrypt.espera-maxima-ms:1000}") long esperaMaximaMs) {
+        this.bcrypt = new BCryptPasswordEncoder(costo);
+        this.costo = costo;
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.ejecutor = new ThreadPoolExecutor(this.hilos, this.hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                Thread.ofPlatform().name("bcrypt-", 0).daemon().factory());
+
+        Gauge.builder("auth.bcrypt.cola", ejecutor, e -> e.getQueue().size())
+                .description("Operaciones BCrypt esperando un hilo")
+                .register(meterRegistry);
+        this.codificacion = Timer.builder("auth.bcrypt.duracion")
+                .description("Tiempo de CPU de cada operación BCrypt")
+                .tag("operacion", "codificar")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.verificacion = Timer.builder("auth.bcrypt.duracion")
+                .description("Tiempo de CPU de cada operación BCrypt")
+                .tag("operacion", "verificar")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("auth.bcrypt.rechazos")
+                .description("Operaciones BCrypt rechazadas con 503")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> bcrypt.encode(rawPassword), codificacion);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> bcrypt.matches(rawPassword, encodedPassword), verificacion);
+    }
+
+    /** Un hash con otro costo que el configurado se vuelve a generar en el siguiente login correcto. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        Integer costoHash = costoDe(encodedPassword);
+        return costoHash != null && costoHash != costo;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    private <T> T ejecutar(Supplier<T> operacion, Timer timer) {
+        Future<T> resultado;
+        try {
+            resultado = ejecutor.submit(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return operacion.get();
+                } finally {
+                    timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            throw rechazar();
+        }
+        try {
+            return resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            resultado.cancel(false);
+            throw rechazar();
+        } catch (InterruptedException ex) {
+            resultado.cancel(false);
+            Thread.currentThread().interrupt();
+            throw rechazar();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private ServiceUnavailableException rechazar() {
+        rechazos.increment();
+        double segundos = ejecutor.getQueue().size() * verificacion.mean(TimeUnit.SECONDS) / hilos;
+        return new ServiceUnavailableException(
+                "Demasiados inicios de sesión en curso, intente nuevamente",
+                Math.max(1, (long) Math.ceil(segundos)));
+    }
+
+    /** Costo de un hash {@code $2a$10$...}, o {@code null} si no es BCrypt. */
+    static Integer costoDe(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || !encodedPassword.startsWith("$2")
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return null;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.matricula_universitaria.security;
+
+import com.matricula_universitaria.entity.AuthUser;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * {@code UserDetails} que conserva el {@link AuthUser} cargado con sus roles y permisos, para que el login arme la
+ * respuesta sin volver a consultarlo.
+ */
+public class UsuarioAutenticado extends User {
+
+    private final transient AuthUser usuario;
+
+    public UsuarioAutenticado(AuthUser usuario, Collection<? extends GrantedAuthority> authorities) {
+        super(usuario.getUsername(), usuario.getPassword(), Boolean.TRUE.equals(usuario.getActivo()),
+                true, true, true, authorities);
+        this.usuario = usuario;
+    }
+
+    public AuthUser getUsuario() {
+        return usuario;
+    }
+}
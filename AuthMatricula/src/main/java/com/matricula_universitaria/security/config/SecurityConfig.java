@@ -1,6 +1,7 @@
 package com.matricula_universitaria.security.config;
 
 import com.matricula_universitaria.security.AuthUserDetailsService;
+import com.matricula_universitaria.security.CodificadorContrasenas;
 import com.matricula_universitaria.security.jwt.JwtFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,8 +12,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -23,15 +22,14 @@ public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
     private final AuthUserDetailsService authUserDetailsService;
+    private final CodificadorContrasenas codificadorContrasenas;
 
-    public SecurityConfig(JwtFilter jwtFilter, AuthUserDetailsService authUserDetailsService) {
+    public SecurityConfig(JwtFilter jwtFilter,
+                          AuthUserDetailsService authUserDetailsService,
+                          CodificadorContrasenas codificadorContrasenas) {
         this.jwtFilter = jwtFilter;
         this.authUserDetailsService = authUserDetailsService;
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        this.codificadorContrasenas = codificadorContrasenas;
     }
 
     @Bean
@@ -43,7 +41,8 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(codificadorContrasenas);
+        provider.setUserDetailsPasswordService(authUserDetailsService);
         return provider;
     }
 
@@ -58,7 +57,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/google/login", "/api/auth/roles", "/api/auth/roles/with-permissions").permitAll()
+                        .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/google/login", "/api/auth/refresh", "/api/auth/roles", "/api/auth/roles/with-permissions").permitAll()
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -1,28 +1,33 @@
 package com.matricula_universitaria.security.jwt;
 
-import com.matricula_universitaria.security.AuthUserDetailsService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 
+/**
+ * Autentica con lo que trae el token (usuario, roles y permisos) sin cargar el usuario de la base; solo se
+ * comprueba, con caché, que no haya sido desactivado ({@link RevocacionTokens}).
+ */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final AuthUserDetailsService userDetailsService;
+    private final RevocacionTokens revocacionTokens;
 
-    public JwtFilter(JwtUtil jwtUtil, AuthUserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, RevocacionTokens revocacionTokens) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.revocacionTokens = revocacionTokens;
     }
 
     @Override
@@ -30,29 +35,25 @@ public class JwtFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
         String username = null;
+        Set<GrantedAuthority> authorities = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
             try {
-                username = jwtUtil.getUsernameFromToken(token);
-            } catch (Exception ex) {
+                TokenVerificado token = jwtUtil.verificar(authHeader.substring(7));
+                username = token.username();
+                authorities = token.authorities();
+            } catch (JwtException | IllegalArgumentException ex) {
                 username = null;
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.isTokenValid(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !revocacionTokens.estaRevocado(username)) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(username, null, authorities);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
@@ -61,6 +62,7 @@ public class JwtFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return path.startsWith("/api/auth/login") || path.startsWith("/api/auth/register");
+        return path.startsWith("/api/auth/login") || path.startsWith("/api/auth/register")
+                || path.startsWith("/api/auth/refresh");
     }
 }
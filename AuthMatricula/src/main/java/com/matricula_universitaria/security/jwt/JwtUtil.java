@@ -1,64 +1,162 @@
 package com.matricula_universitaria.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
+    /** Nombres de rol sin el prefijo {@code ROLE_}. */
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_PERMISOS = "permisos";
+
+    private static final String PREFIJO_ROL = "ROLE_";
+
     private final SecretKey secretKey;
     private final long jwtExpirationMs;
+    // Inmutable y seguro entre hilos: crearlo por token costaba más que verificar la firma.
+    private final JwtParser parser;
+    // El mismo token llega en cada petición de la sesión: se verifica una vez y se recuerda hasta que expira.
+    // La clave es el SHA-256 del token, para no retener en memoria tokens utilizables.
+    private final Cache<String, TokenVerificado> verificados;
 
     public JwtUtil(
             @Value("${security.jwt.secret:changeThisSecretKeyChangeThisSecretKey}") String secret,
-            @Value("${security.jwt.expiration-ms:3600000}") long jwtExpirationMs
+            @Value("${security.jwt.expiration-ms:900000}") long jwtExpirationMs,
+            @Value("${security.jwt.cache-max-tokens:10000}") long cacheMaxTokens
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(cacheMaxTokens)
+                .expireAfter(new HastaExpirar())
+                .build();
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails.getUsername(), userDetails.getAuthorities());
+    }
+
+    /** Token con los roles y permisos del usuario, para autorizar sin volver a leerlo de la base. */
+    public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
+        List<String> roles = new ArrayList<>();
+        List<String> permisos = new ArrayList<>();
+        for (GrantedAuthority authority : authorities) {
+            String nombre = authority.getAuthority();
+            if (nombre.startsWith(PREFIJO_ROL)) {
+                roles.add(nombre.substring(PREFIJO_ROL.length()));
+            } else {
+                permisos.add(nombre);
+            }
+        }
+
         return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+                .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_PERMISOS, permisos)
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica firma y expiración una sola vez por token; lanza {@link io.jsonwebtoken.JwtException} si no es
+     * válido. Los tokens rechazados no se guardan.
+     */
+    public TokenVerificado verificar(String token) {
+        String huella = huella(token);
+        TokenVerificado verificado = verificados.getIfPresent(huella);
+        if (verificado == null) {
+            verificado = leer(token);
+            verificados.put(huella, verificado);
+        }
+        return verificado;
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return verificar(token).username();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = getUsernameFromToken(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    TokenVerificado leer(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new TokenVerificado(claims.getSubject(), authorities(claims), claims.getExpiration().getTime());
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    private static String huella(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** Los tokens emitidos antes de incluir roles y permisos se rechazan: el cliente debe volver a iniciar sesión. */
+    private static Set<GrantedAuthority> authorities(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        List<?> permisos = claims.get(CLAIM_PERMISOS, List.class);
+        if (roles == null || permisos == null) {
+            throw new MalformedJwtException("El token no incluye roles ni permisos");
+        }
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (Object rol : roles) {
+            authorities.add(new SimpleGrantedAuthority(PREFIJO_ROL + rol));
+        }
+        for (Object permiso : permisos) {
+            authorities.add(new SimpleGrantedAuthority(permiso.toString()));
+        }
+        return Collections.unmodifiableSet(authorities);
+    }
+
+    private static final class HastaExpirar implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String huella, TokenVerificado verificado, long currentTime) {
+            long restanteMs = verificado.expiraEnMs() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, restanteMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String huella, TokenVerificado verificado, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(huella, verificado, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String huella, TokenVerificado verificado, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 }
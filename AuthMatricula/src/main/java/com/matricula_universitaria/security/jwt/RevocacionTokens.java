@@ -0,0 +1,38 @@
+package com.matricula_universitaria.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.matricula_universitaria.repository.AuthUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Los tokens no se consultan contra la base en cada petición, pero un usuario desactivado o eliminado no debe
+ * seguir entrando hasta que su token expire. Se guarda si cada usuario sigue activo durante
+ * {@code security.jwt.revocacion-ttl-ms}: como mucho una consulta por usuario en ese intervalo, y las bajas hechas
+ * en esta instancia se aplican al momento con {@link #invalidar}.
+ */
+@Component
+public class RevocacionTokens {
+
+    private final LoadingCache<String, Boolean> activos;
+
+    public RevocacionTokens(AuthUserRepository userRepository,
+                            @Value("${security.jwt.revocacion-ttl-ms:30000}") long ttlMs,
+                            @Value("${security.jwt.revocacion-max-usuarios:100000}") long maxUsuarios) {
+        this.activos = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxUsuarios)
+                .build(username -> userRepository.findActivoByUsername(username).orElse(Boolean.FALSE));
+    }
+
+    public boolean estaRevocado(String username) {
+        return !Boolean.TRUE.equals(activos.get(username));
+    }
+
+    public void invalidar(String username) {
+        activos.invalidate(username);
+    }
+}
@@ -0,0 +1,9 @@
+package com.matricula_universitaria.security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Set;
+
+/** Lo que se usa de un token ya verificado: usuario, authorities y expiración (epoch ms). */
+public record TokenVerificado(String username, Set<GrantedAuthority> authorities, long expiraEnMs) {
+}
@@ -3,6 +3,7 @@ package com.matricula_universitaria.service;
 import com.matricula_universitaria.dto.AuthUserResponseDto;
 import com.matricula_universitaria.dto.JwtResponse;
 import com.matricula_universitaria.dto.LoginRequest;
+import com.matricula_universitaria.dto.RefreshRequest;
 import com.matricula_universitaria.dto.RegisterRequest;
 import com.matricula_universitaria.dto.GoogleLoginRequest;
 
@@ -14,5 +15,7 @@ public interface AuthAuthenticationService {
 
     JwtResponse loginWithGoogle(GoogleLoginRequest request);
 
+    JwtResponse refresh(RefreshRequest request);
+
     AuthUserResponseDto me(String usernameOrEmail);
 }
@@ -0,0 +1,18 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.entity.AuthUser;
+
+public interface RefreshTokenService {
+
+    /** Refresh token opaco de una familia nueva, para un login. */
+    String emitir(AuthUser user);
+
+    /** Cambia un refresh token válido por otro de la misma familia; el usado deja de servir. */
+    Rotacion rotar(String refreshToken);
+
+    void revocarTodos(Long userId);
+
+    /** Usuario del token (con roles y permisos cargados) y el refresh token que lo reemplaza. */
+    record Rotacion(AuthUser usuario, String refreshToken) {
+    }
+}
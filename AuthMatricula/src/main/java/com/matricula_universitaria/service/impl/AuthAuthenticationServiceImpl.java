@@ -4,6 +4,7 @@ import com.matricula_universitaria.dto.AuthUserResponseDto;
 import com.matricula_universitaria.dto.GoogleLoginRequest;
 import com.matricula_universitaria.dto.JwtResponse;
 import com.matricula_universitaria.dto.LoginRequest;
+import com.matricula_universitaria.dto.RefreshRequest;
 import com.matricula_universitaria.dto.RegisterRequest;
 import com.matricula_universitaria.entity.AuthRole;
 import com.matricula_universitaria.entity.AuthUser;
@@ -13,29 +14,33 @@ import com.matricula_universitaria.events.dto.UserCreatedEvent;
 import com.matricula_universitaria.events.producer.UserCreatedProducer;
 import com.matricula_universitaria.exceptions.BadRequestException;
 import com.matricula_universitaria.exceptions.ResourceNotFoundException;
+import com.matricula_universitaria.exceptions.UnauthorizedException;
 import com.matricula_universitaria.mapper.AuthUserMapper;
 import com.matricula_universitaria.repository.AuthRoleRepository;
 import com.matricula_universitaria.repository.AuthUserRepository;
 import com.matricula_universitaria.repository.AuthUserRoleRepository;
+import com.matricula_universitaria.security.AuthUserDetailsService;
+import com.matricula_universitaria.security.UsuarioAutenticado;
 import com.matricula_universitaria.security.jwt.JwtUtil;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 import com.matricula_universitaria.service.AuthAuthenticationService;
+import com.matricula_universitaria.service.RefreshTokenService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -50,6 +55,8 @@ public class AuthAuthenticationServiceImpl implements AuthAuthenticationService
     private final AuthUserMapper userMapper;
     private final UserCreatedProducer userCreatedProducer;
     private final FirebaseAuth firebaseAuth;
+    private final AuthUserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthAuthenticationServiceImpl(AuthUserRepository userRepository,
                                          AuthRoleRepository roleRepository,
@@ -59,7 +66,9 @@ public class AuthAuthenticationServiceImpl implements AuthAuthenticationService
                                          JwtUtil jwtUtil,
                                          AuthUserMapper userMapper,
                                          UserCreatedProducer userCreatedProducer,
-                                         FirebaseAuth firebaseAuth) {
+                                         FirebaseAuth firebaseAuth,
+                                         AuthUserDetailsService userDetailsService,
+                                         RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.userRoleRepository = userRoleRepository;
@@ -69,9 +78,13 @@ public class AuthAuthenticationServiceImpl implements AuthAuthenticationService
         this.userMapper = userMapper;
         this.userCreatedProducer = userCreatedProducer;
         this.firebaseAuth = firebaseAuth;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
     }
 
+    /** Sin transacción propia: el hash BCrypt espera en su cola sin retener una conexión; el alta es un solo INSERT. */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthUserResponseDto register(RegisterRequest request) {
         userRepository.findByUsernameIgnoreCase(request.username())
                 .ifPresent(u -> { throw new BadRequestException("Ya existe un usuario con username " + request.username()); });
@@ -98,31 +111,47 @@ public class AuthAuthenticationServiceImpl implements AuthAuthenticationService
         return userMapper.toResponseDto(saved);
     }
 
+    /**
+     * Sin transacción propia: la verificación BCrypt espera en su cola sin retener una conexión. La carga del usuario,
+     * el rehash ({@link AuthUserDetailsService#updatePassword}) y la emisión del refresh token usan cada uno la suya.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public JwtResponse login(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.usernameOrEmail(), request.password())
         );
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtUtil.generateToken(userDetails);
+        // El usuario, sus roles y sus permisos ya vienen cargados de la única consulta de la autenticación.
+        UsuarioAutenticado principal = (UsuarioAutenticado) authentication.getPrincipal();
+        String token = jwtUtil.generateToken(principal);
+        AuthUser user = principal.getUsuario();
 
-        AuthUser user = userRepository.findByUsernameIgnoreCase(userDetails.getUsername())
-                .orElseGet(() -> userRepository.findByEmailIgnoreCase(userDetails.getUsername())
-                        .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado")));
+        return new JwtResponse(
+                token,
+                "Bearer",
+                user.getUsername(),
+                user.getEmail(),
+                new HashSet<>(extractRoleNames(user)),
+                refreshTokenService.emitir(user)
+        );
+    }
 
-        Set<String> roles = user.getUserRoles().stream()
-                .map(AuthUserRole::getRole)
-                .filter(Objects::nonNull)
-                .map(AuthRole::getNombre)
-                .collect(Collectors.toSet());
+    /** Nuevo access token sin BCrypt ni Firebase: una búsqueda del refresh token, que además se rota. */
+    @Override
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public JwtResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotacion rotacion = refreshTokenService.rotar(request.refreshToken());
+        AuthUser user = rotacion.usuario();
+        String token = jwtUtil.generateToken(user.getUsername(), userDetailsService.buildAuthorities(user));
 
         return new JwtResponse(
                 token,
                 "Bearer",
                 user.getUsername(),
                 user.getEmail(),
-                roles
+                new HashSet<>(extractRoleNames(user)),
+                rotacion.refreshToken()
         );
     }
 
@@ -165,17 +194,7 @@ public class AuthAuthenticationServiceImpl implements AuthAuthenticationService
                     }
                 });
 
-        String token = jwtUtil.generateToken(
-                new org.springframework.security.core.userdetails.User(
-                        user.getUsername(),
-                        "", // no usamos password para este token
-                        Boolean.TRUE.equals(user.getActivo()),
-                        true,
-                        true,
-                        true,
-                        java.util.Collections.emptyList()
-                )
-        );
+        String token = jwtUtil.generateToken(user.getUsername(), userDetailsService.buildAuthorities(user));
 
         java.util.Set<String> roles = new java.util.HashSet<>(extractRoleNames(user));
 
@@ -184,7 +203,8 @@ public class AuthAuthenticationServiceImpl implements AuthAuthenticationService
                 "Bearer",
                 user.getUsername(),
                 user.getEmail(),
-                roles
+                roles,
+                refreshTokenService.emitir(user)
         );
     }
 
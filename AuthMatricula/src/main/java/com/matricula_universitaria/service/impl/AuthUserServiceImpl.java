@@ -18,9 +18,13 @@ import com.matricula_universitaria.mapper.AuthUserMapper;
 import com.matricula_universitaria.repository.AuthRoleRepository;
 import com.matricula_universitaria.repository.AuthUserRepository;
 import com.matricula_universitaria.repository.AuthUserRoleRepository;
+import com.matricula_universitaria.security.jwt.RevocacionTokens;
 import com.matricula_universitaria.service.AuthUserService;
+import com.matricula_universitaria.service.RefreshTokenService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.List;
@@ -37,6 +41,8 @@ public class AuthUserServiceImpl implements AuthUserService {
     private final UserCreatedProducer userCreatedProducer;
     private final UserUpdatedProducer userUpdatedProducer;
     private final UserDeletedProducer userDeletedProducer;
+    private final RevocacionTokens revocacionTokens;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthUserServiceImpl(AuthUserRepository userRepository,
                                AuthRoleRepository roleRepository,
@@ -44,7 +50,9 @@ public class AuthUserServiceImpl implements AuthUserService {
                                AuthUserMapper userMapper,
                                UserCreatedProducer userCreatedProducer,
                                UserUpdatedProducer userUpdatedProducer,
-                               UserDeletedProducer userDeletedProducer) {
+                               UserDeletedProducer userDeletedProducer,
+                               RevocacionTokens revocacionTokens,
+                               RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.userRoleRepository = userRoleRepository;
@@ -52,6 +60,8 @@ public class AuthUserServiceImpl implements AuthUserService {
         this.userCreatedProducer = userCreatedProducer;
         this.userUpdatedProducer = userUpdatedProducer;
         this.userDeletedProducer = userDeletedProducer;
+        this.revocacionTokens = revocacionTokens;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Override
@@ -94,6 +104,10 @@ public class AuthUserServiceImpl implements AuthUserService {
                     .ifPresent(u -> { throw new BadRequestException("Ya existe un usuario con email " + request.email()); });
         }
 
+        if (Boolean.TRUE.equals(entity.getActivo()) && !Boolean.TRUE.equals(request.activo())) {
+            refreshTokenService.revocarTodos(entity.getId());
+        }
+        invalidarTokensAlConfirmar(entity.getUsername());
         userMapper.updateEntityFromDto(request, entity);
         AuthUser updated = userRepository.save(entity);
 
@@ -131,7 +145,9 @@ public class AuthUserServiceImpl implements AuthUserService {
                 .build();
         userDeletedProducer.send(event);
 
+        refreshTokenService.revocarTodos(entity.getId());
         userRepository.delete(entity);
+        invalidarTokensAlConfirmar(entity.getUsername());
     }
 
     @Override
@@ -216,4 +232,14 @@ public class AuthUserServiceImpl implements AuthUserService {
 
         return userMapper.toResponseDto(user);
     }
+
+    /** Los tokens del usuario dejan de aceptarse en cuanto se confirma su baja o desactivación. */
+    private void invalidarTokensAlConfirmar(String username) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocacionTokens.invalidar(username);
+            }
+        });
+    }
 }
@@ -0,0 +1,118 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.entity.AuthRefreshToken;
+import com.matricula_universitaria.entity.AuthUser;
+import com.matricula_universitaria.exceptions.UnauthorizedException;
+import com.matricula_universitaria.repository.AuthRefreshTokenRepository;
+import com.matricula_universitaria.service.RefreshTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos con rotación. El cliente recibe 32 bytes aleatorios y en la base solo queda su SHA-256
+ * (con esa entropía no hace falta BCrypt), así que renovar el access token cuesta una búsqueda por índice. Cada uso
+ * entrega un token nuevo de la misma familia; si se presenta uno ya usado, alguien más lo tiene y se revoca la
+ * familia entera.
+ */
+@Slf4j
+@Service
+@Transactional
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String INVALIDO = "Refresh token inválido o expirado";
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private final AuthRefreshTokenRepository refreshTokenRepository;
+    private final long duracionMs;
+    private final Counter reusos;
+
+    public RefreshTokenServiceImpl(AuthRefreshTokenRepository refreshTokenRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${security.jwt.refresh-expiration-ms:1209600000}") long duracionMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.duracionMs = duracionMs;
+        this.reusos = Counter.builder("auth.refresh.reusos")
+                .description("Refresh tokens ya usados que se volvieron a presentar (familia revocada)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String emitir(AuthUser user) {
+        return guardar(user, UUID.randomUUID());
+    }
+
+    // Las revocaciones hechas antes de rechazar el token deben confirmarse.
+    @Override
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotacion rotar(String refreshToken) {
+        AuthRefreshToken actual = refreshTokenRepository.findConUsuarioByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new UnauthorizedException(INVALIDO));
+
+        if (Boolean.TRUE.equals(actual.getRevocado()) || refreshTokenRepository.marcarUsado(actual.getId()) == 0) {
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            reusos.increment();
+            log.warn("Refresh token reutilizado del usuario {}: se revoca la familia {}",
+                    actual.getUser().getId(), actual.getFamilia());
+            throw new UnauthorizedException(INVALIDO);
+        }
+        if (actual.getExpiraEn().isBefore(LocalDateTime.now())) {
+            throw new UnauthorizedException(INVALIDO);
+        }
+        AuthUser user = actual.getUser();
+        if (!Boolean.TRUE.equals(user.getActivo())) {
+            refreshTokenRepository.revocarPorUsuario(user.getId());
+            throw new UnauthorizedException(INVALIDO);
+        }
+        return new Rotacion(user, guardar(user, actual.getFamilia()));
+    }
+
+    @Override
+    public void revocarTodos(Long userId) {
+        refreshTokenRepository.revocarPorUsuario(userId);
+    }
+
+    @Scheduled(cron = "${security.jwt.refresh-purga-cron:0 30 3 * * *}")
+    public void purgarExpirados() {
+        int eliminados = refreshTokenRepository.eliminarExpirados(LocalDateTime.now());
+        if (eliminados > 0) {
+            log.info("Refresh tokens expirados eliminados: {}", eliminados);
+        }
+    }
+
+    private String guardar(AuthUser user, UUID familia) {
+        byte[] bytes = new byte[32];
+        ALEATORIO.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(AuthRefreshToken.builder()
+                .user(user)
+                .tokenHash(hash(token))
+                .familia(familia)
+                .expiraEn(LocalDateTime.now().plus(Duration.ofMillis(duracionMs)))
+                .build());
+        return token;
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
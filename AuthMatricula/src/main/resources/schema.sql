@@ -64,3 +64,26 @@ CREATE TABLE IF NOT EXISTS auth_role_permission (
 -- ===========================
 CREATE INDEX IF NOT EXISTS idx_auth_user_username ON auth_user(username);
 CREATE INDEX IF NOT EXISTS idx_auth_user_email ON auth_user(email);
+-- Login por username o email sin distinguir mayúsculas (AuthUserRepository.findConRolesYPermisos)
+CREATE INDEX IF NOT EXISTS idx_auth_user_username_lower ON auth_user(LOWER(username));
+CREATE INDEX IF NOT EXISTS idx_auth_user_email_lower ON auth_user(LOWER(email));
+
+-- ===========================
+-- TABLA: auth_refresh_token
+-- ===========================
+-- Solo se guarda el SHA-256 del token. Cada rotación crea una fila nueva en la misma familia y marca la anterior
+-- como revocada; presentar un token ya revocado revoca toda la familia.
+CREATE TABLE IF NOT EXISTS auth_refresh_token (
+    token_id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    token_hash VARCHAR(64) UNIQUE NOT NULL,
+    familia UUID NOT NULL,
+    expira_en TIMESTAMP NOT NULL,
+    revocado BOOLEAN NOT NULL DEFAULT FALSE,
+    fecha_creacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_refresh_user FOREIGN KEY (user_id)
+        REFERENCES auth_user(user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_token_familia ON auth_refresh_token(familia);
+CREATE INDEX IF NOT EXISTS idx_auth_refresh_token_user ON auth_refresh_token(user_id);
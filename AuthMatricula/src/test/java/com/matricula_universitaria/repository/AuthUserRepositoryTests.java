@@ -0,0 +1,75 @@
+package com.matricula_universitaria.repository;
+
+import com.matricula_universitaria.entity.AuthPermission;
+import com.matricula_universitaria.entity.AuthRole;
+import com.matricula_universitaria.entity.AuthRolePermission;
+import com.matricula_universitaria.entity.AuthRolePermissionId;
+import com.matricula_universitaria.entity.AuthUser;
+import com.matricula_universitaria.entity.AuthUserRole;
+import com.matricula_universitaria.entity.AuthUserRoleId;
+import com.matricula_universitaria.security.AuthUserDetailsService;
+import com.matricula_universitaria.security.UsuarioAutenticado;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AuthUserDetailsService.class)
+class AuthUserRepositoryTests {
+
+    @Autowired
+    private AuthUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void elLoginCargaUsuarioRolesYPermisosEnUnaSolaConsulta() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        AuthUser user = AuthUser.builder().username("u" + sufijo).email(sufijo + "@auth.edu")
+                .password("{noop}x").build();
+        entityManager.persist(user);
+        for (String nombreRol : new String[]{"lector", "editor"}) {
+            AuthRole rol = AuthRole.builder().nombre(nombreRol + sufijo).build();
+            entityManager.persist(rol);
+            entityManager.persist(AuthUserRole.builder().id(new AuthUserRoleId(user.getId(), rol.getId()))
+                    .user(user).role(rol).build());
+            for (String accion : new String[]{"READ", "UPDATE"}) {
+                AuthPermission permiso = AuthPermission.builder().nombre(nombreRol + sufijo + ":" + accion).build();
+                entityManager.persist(permiso);
+                entityManager.persist(AuthRolePermission.builder()
+                        .id(new AuthRolePermissionId(rol.getId(), permiso.getId()))
+                        .role(rol).permission(permiso).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        UsuarioAutenticado autenticado = userDetailsService.loadUserByUsername(sufijo.toUpperCase() + "@AUTH.EDU");
+
+        assertThat(autenticado.getUsername()).isEqualTo("u" + sufijo);
+        assertThat(AuthorityUtils.authorityListToSet(autenticado.getAuthorities())).containsExactlyInAnyOrder(
+                "ROLE_lector" + sufijo, "ROLE_editor" + sufijo,
+                "lector" + sufijo + ":READ", "lector" + sufijo + ":UPDATE",
+                "editor" + sufijo + ":READ", "editor" + sufijo + ":UPDATE");
+        assertThat(autenticado.getUsuario().getUserRoles()).hasSize(2);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.matricula_universitaria.security;
+
+import com.matricula_universitaria.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodificadorContrasenasTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void codificaYVerificaEnElPoolYPideRehashSiCambiaElCosto() {
+        CodificadorContrasenas codificador = new CodificadorContrasenas(registry, 5, 1, 10, 5000);
+
+        String hash = codificador.encode("Secreta123");
+
+        assertThat(codificador.matches("Secreta123", hash)).isTrue();
+        assertThat(codificador.matches("otra", hash)).isFalse();
+        assertThat(codificador.upgradeEncoding(hash)).isFalse();
+        assertThat(codificador.upgradeEncoding(new BCryptPasswordEncoder(4).encode("Secreta123"))).isTrue();
+        assertThat(codificador.upgradeEncoding(null)).isFalse();
+        assertThat(registry.get("auth.bcrypt.duracion").tag("operacion", "verificar").timer().count())
+                .isEqualTo(2);
+        codificador.cerrar();
+    }
+
+    @Test
+    void conElPoolYLaColaLlenosRechazaEnSeguidaCon503() throws Exception {
+        // Un hilo y un hueco en cola: de tres hashes lentos simultáneos, al menos uno no cabe.
+        CodificadorContrasenas codificador = new CodificadorContrasenas(registry, 13, 1, 1, 30_000);
+        List<Future<String>> hashes = new ArrayList<>();
+        try (ExecutorService clientes = Executors.newFixedThreadPool(3)) {
+            for (int i = 0; i < 3; i++) {
+                hashes.add(clientes.submit(() -> codificador.encode("Secreta123")));
+            }
+        }
+
+        int rechazados = 0;
+        for (Future<String> hash : hashes) {
+            try {
+                hash.get();
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(ServiceUnavailableException.class);
+                rechazados++;
+            }
+        }
+        assertThat(rechazados).isGreaterThanOrEqualTo(1);
+        assertThat(registry.get("auth.bcrypt.rechazos").counter().count()).isEqualTo(rechazados);
+        codificador.cerrar();
+    }
+}
@@ -0,0 +1,83 @@
+package com.matricula_universitaria.security.jwt;
+
+import com.matricula_universitaria.repository.AuthUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtFilterTests {
+
+    private final JwtUtil jwtUtil = new JwtUtil("changeThisSecretKeyChangeThisSecretKey", 3_600_000, 100);
+    private final AuthUserRepository userRepository = mock(AuthUserRepository.class);
+    private final RevocacionTokens revocacionTokens = new RevocacionTokens(userRepository, 60_000, 100);
+    private final JwtFilter filter = new JwtFilter(jwtUtil, revocacionTokens);
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void autenticaConLosRolesYPermisosDelTokenSinCargarElUsuario() throws Exception {
+        when(userRepository.findActivoByUsername("ana")).thenReturn(Optional.of(true));
+        String token = jwtUtil.generateToken("ana",
+                AuthorityUtils.createAuthorityList("ROLE_ESTUDIANTE", "MATRICULA_CREAR"));
+
+        filtrar(token);
+        filtrar(token);
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(autenticacion.getName()).isEqualTo("ana");
+        assertThat(AuthorityUtils.authorityListToSet(autenticacion.getAuthorities()))
+                .containsExactlyInAnyOrder("ROLE_ESTUDIANTE", "MATRICULA_CREAR");
+        verify(userRepository, times(1)).findActivoByUsername("ana");
+    }
+
+    @Test
+    void unUsuarioDesactivadoDejaDeAutenticarseAlInvalidarlo() throws Exception {
+        when(userRepository.findActivoByUsername("ana")).thenReturn(Optional.of(true), Optional.of(false));
+        String token = jwtUtil.generateToken("ana", AuthorityUtils.createAuthorityList("ROLE_ESTUDIANTE"));
+        filtrar(token);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+
+        revocacionTokens.invalidar("ana");
+        filtrar(token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void rechazaTokensAlteradosOSinAutoridades() throws Exception {
+        when(userRepository.findActivoByUsername("ana")).thenReturn(Optional.of(true));
+        String token = jwtUtil.generateToken("ana", AuthorityUtils.createAuthorityList("ROLE_ESTUDIANTE"));
+
+        filtrar(token.substring(0, token.length() - 2) + "xx");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+        filtrar(io.jsonwebtoken.Jwts.builder().setSubject("ana")
+                .signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(
+                        "changeThisSecretKeyChangeThisSecretKey".getBytes())).compact());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    /** Cada petición empieza con el contexto vacío, como en una API sin sesión. */
+    private void filtrar(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,51 @@
+package com.matricula_universitaria.security.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTests {
+
+    private static final String SECRETO = "changeThisSecretKeyChangeThisSecretKey";
+
+    @Test
+    void unTokenSeVerificaUnaVezYLuegoSeSirveDeLaCache() {
+        JwtUtil jwtUtil = new JwtUtil(SECRETO, 3_600_000, 100);
+        String token = jwtUtil.generateToken("ana",
+                AuthorityUtils.createAuthorityList("ROLE_ESTUDIANTE", "MATRICULA_CREAR"));
+
+        TokenVerificado primero = jwtUtil.verificar(token);
+
+        assertThat(jwtUtil.verificar(token)).isSameAs(primero);
+        assertThat(primero.username()).isEqualTo("ana");
+        assertThat(AuthorityUtils.authorityListToSet(primero.authorities()))
+                .containsExactlyInAnyOrder("ROLE_ESTUDIANTE", "MATRICULA_CREAR");
+    }
+
+    @Test
+    void unaFirmaAlteradaSigueRechazandoseAunqueElOriginalEsteEnCache() {
+        JwtUtil jwtUtil = new JwtUtil(SECRETO, 3_600_000, 100);
+        String token = jwtUtil.generateToken("ana", AuthorityUtils.createAuthorityList("ROLE_ESTUDIANTE"));
+        jwtUtil.verificar(token);
+
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThatThrownBy(() -> jwtUtil.verificar(alterado)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> jwtUtil.verificar(alterado)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void elTokenSaleDeLaCacheAlExpirar() throws Exception {
+        // exp se guarda en segundos: con 1500 ms el token vive entre 0,5 y 1,5 s.
+        JwtUtil jwtUtil = new JwtUtil(SECRETO, 1500, 100);
+        String token = jwtUtil.generateToken("ana", AuthorityUtils.createAuthorityList("ROLE_ESTUDIANTE"));
+        jwtUtil.verificar(token);
+
+        Thread.sleep(1600);
+
+        assertThatThrownBy(() -> jwtUtil.verificar(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.entity.AuthRefreshToken;
+import com.matricula_universitaria.entity.AuthUser;
+import com.matricula_universitaria.exceptions.UnauthorizedException;
+import com.matricula_universitaria.service.RefreshTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RefreshTokenServiceImpl.class, RefreshTokenServiceImplTests.Metricas.class})
+class RefreshTokenServiceImplTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private AuthUser user;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        user = AuthUser.builder().username("r" + sufijo).email(sufijo + "@refresh.edu").password("{noop}x").build();
+        entityManager.persist(user);
+    }
+
+    @Test
+    void rotaConUnaSolaBusquedaYUnTokenReutilizadoRevocaLaFamilia() {
+        String original = refreshTokenService.emitir(user);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        RefreshTokenService.Rotacion rotacion = refreshTokenService.rotar(original);
+        entityManager.flush();
+
+        assertThat(rotacion.usuario().getUsername()).isEqualTo(user.getUsername());
+        assertThat(rotacion.refreshToken()).isNotEqualTo(original);
+        // Búsqueda del token con usuario, roles y permisos + marcar como usado + insertar el nuevo.
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(3);
+
+        assertThatThrownBy(() -> refreshTokenService.rotar(original)).isInstanceOf(UnauthorizedException.class);
+        entityManager.clear();
+        assertThatThrownBy(() -> refreshTokenService.rotar(rotacion.refreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(entityManager.createQuery(
+                        "SELECT COUNT(t) FROM AuthRefreshToken t WHERE t.user.id = :id AND t.revocado = false", Long.class)
+                .setParameter("id", user.getId()).getSingleResult()).isZero();
+    }
+
+    @Test
+    void noRenuevaTokensDeUsuariosDesactivadosNiDesconocidos() {
+        String token = refreshTokenService.emitir(user);
+        user.setActivo(false);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThatThrownBy(() -> refreshTokenService.rotar(token)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotar("desconocido")).isInstanceOf(UnauthorizedException.class);
+        assertThat(entityManager.createQuery("SELECT t FROM AuthRefreshToken t WHERE t.user.id = :id",
+                        AuthRefreshToken.class)
+                .setParameter("id", user.getId()).getSingleResult().getTokenHash())
+                .isEqualTo(RefreshTokenServiceImpl.hash(token))
+                .hasSize(64);
+    }
+
+    @TestConfiguration
+    static class Metricas {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara dos CSV de JMH ({@code -rf csv}): el tiempo por operación y los bytes asignados por operación
+ * ({@code gc.alloc.rate.norm}) de cada benchmark y parámetros. Termina con código 1 si alguno crece más de la
+ * tolerancia, para usarlo como control de regresiones.
+ *
+ * <pre>java CompararResultados.java resultados/base.csv resultados/actual.csv 10</pre>
+ */
+public class CompararResultados {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Double> base = leer(Path.of(args[0]));
+        Map<String, Double> actual = leer(Path.of(args[1]));
+        double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regresiones = 0;
+        for (Map.Entry<String, Double> medida : actual.entrySet()) {
+            Double anterior = base.get(medida.getKey());
+            if (anterior == null || anterior == 0) {
+                System.out.printf("%-90s %14.3f   (nuevo)%n", medida.getKey(), medida.getValue());
+                continue;
+            }
+            double cambio = (medida.getValue() - anterior) / anterior * 100;
+            boolean regresion = cambio > tolerancia;
+            regresiones += regresion ? 1 : 0;
+            System.out.printf("%-90s %14.3f %+8.1f %%%s%n", medida.getKey(), medida.getValue(), cambio,
+                    regresion ? "   REGRESIÓN" : "");
+        }
+        if (regresiones > 0) {
+            System.out.printf("%d medidas empeoran más de %.0f %%%n", regresiones, tolerancia);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Double> leer(Path csv) throws Exception {
+        List<String> lineas = Files.readAllLines(csv);
+        List<String> cabecera = campos(lineas.get(0));
+        int score = cabecera.indexOf("Score");
+        int unidad = cabecera.indexOf("Unit");
+        Map<String, Double> medidas = new LinkedHashMap<>();
+        for (String linea : lineas.subList(1, lineas.size())) {
+            List<String> fila = campos(linea);
+            String benchmark = fila.get(0);
+            // Las demás métricas del perfilador dependen de la duración de la iteración, no del código.
+            if (benchmark.contains(":") && !benchmark.endsWith(":gc.alloc.rate.norm")) {
+                continue;
+            }
+            StringBuilder clave = new StringBuilder(benchmark);
+            for (int i = unidad + 1; i < fila.size(); i++) {
+                if (!fila.get(i).isEmpty()) {
+                    clave.append(' ').append(cabecera.get(i).replace("Param: ", "")).append('=').append(fila.get(i));
+                }
+            }
+            clave.append(" [").append(fila.get(unidad)).append(']');
+            medidas.put(clave.toString(), Double.parseDouble(fila.get(score)));
+        }
+        return medidas;
+    }
+
+    private static List<String> campos(String linea) {
+        List<String> campos = new ArrayList<>();
+        for (String campo : linea.split(",", -1)) {
+            campos.add(campo.replace("\"", ""));
+        }
+        return campos;
+    }
+}
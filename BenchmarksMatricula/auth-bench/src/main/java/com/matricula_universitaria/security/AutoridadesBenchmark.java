@@ -0,0 +1,77 @@
+package com.matricula_universitaria.security;
+
+import com.matricula_universitaria.entity.AuthPermission;
+import com.matricula_universitaria.entity.AuthRole;
+import com.matricula_universitaria.entity.AuthRolePermission;
+import com.matricula_universitaria.entity.AuthUser;
+import com.matricula_universitaria.entity.AuthUserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autoridades de un usuario ya cargado (roles y permisos inicializados), que es lo que se arma en cada
+ * {@code loadUserByUsername}. El repositorio no interviene.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutoridadesBenchmark {
+
+    private static final String[] ROLES = {"ESTUDIANTE", "DELEGADO"};
+    private static final String[] RECURSOS = {"MATRICULA", "SECCION", "CURSO", "HORARIO", "PAGO", "NOTA"};
+    private static final String[] ACCIONES = {"LEER", "CREAR", "EDITAR"};
+
+    private AuthUserDetailsService servicio;
+    private AuthUser usuario;
+
+    @Setup
+    public void preparar() {
+        servicio = new AuthUserDetailsService(null);
+        usuario = usuario();
+    }
+
+    @Benchmark
+    public Set<GrantedAuthority> buildAuthorities() {
+        return servicio.buildAuthorities(usuario);
+    }
+
+    /** Usuario con dos roles de 18 y 12 permisos; los 12 del segundo también están en el primero. */
+    static AuthUser usuario() {
+        AuthUser usuario = AuthUser.builder().id(1L).username("estudiante.quispe")
+                .email("estudiante.quispe@universidad.edu.pe").password("{noop}x").activo(true)
+                .fechaRegistro(LocalDateTime.of(2026, 1, 10, 8, 0)).build();
+        Map<String, AuthPermission> permisos = new HashMap<>();
+        for (int r = 0; r < ROLES.length; r++) {
+            AuthRole rol = new AuthRole();
+            rol.setId(r + 1L);
+            rol.setNombre(ROLES[r]);
+            for (int i = r * 2; i < RECURSOS.length; i++) {
+                for (String accion : ACCIONES) {
+                    AuthPermission permiso = permisos.computeIfAbsent(RECURSOS[i] + "_" + accion, nombre ->
+                            AuthPermission.builder().id(permisos.size() + 1L).nombre(nombre).build());
+                    rol.getRolePermissions().add(AuthRolePermission.builder().role(rol).permission(permiso).build());
+                }
+            }
+            usuario.getUserRoles().add(AuthUserRole.builder().user(usuario).role(rol).build());
+        }
+        return usuario;
+    }
+}
@@ -0,0 +1,51 @@
+package com.matricula_universitaria.security;
+
+import com.matricula_universitaria.security.jwt.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/** Emisión de un token en el login y lectura del usuario en cada petición autenticada. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private UserDetails usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil("changeThisSecretKeyChangeThisSecretKey", 3_600_000, 10_000);
+        usuario = User.withUsername("estudiante.quispe").password("{noop}x")
+                .authorities(AutoridadesBenchmark.usuario().getUserRoles().stream()
+                        .map(r -> "ROLE_" + r.getRole().getNombre()).toArray(String[]::new))
+                .build();
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtUtil.getUsernameFromToken(token);
+    }
+}
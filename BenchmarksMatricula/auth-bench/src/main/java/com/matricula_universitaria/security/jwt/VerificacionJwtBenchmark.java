@@ -0,0 +1,70 @@
+package com.matricula_universitaria.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de CPU de {@code JwtFilter} por petición autenticada. {@code anterior} reproduce el camino previo (un parser
+ * nuevo y tres verificaciones por petición); {@code sinCache} es la primera petición con un token y {@code conCache}
+ * las siguientes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VerificacionJwtBenchmark {
+
+    private static final String SECRETO = "changeThisSecretKeyChangeThisSecretKey";
+
+    private SecretKey clave;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        clave = Keys.hmacShaKeyFor(SECRETO.getBytes(StandardCharsets.UTF_8));
+        jwtUtil = new JwtUtil(SECRETO, 3_600_000, 10_000);
+        token = jwtUtil.generateToken("estudiante.quispe", AuthorityUtils.createAuthorityList(
+                "ROLE_ESTUDIANTE", "ROLE_DELEGADO", "MATRICULA_LEER", "MATRICULA_CREAR", "SECCION_LEER",
+                "CURSO_LEER", "HORARIO_LEER", "PAGO_LEER", "NOTA_LEER"));
+    }
+
+    @Benchmark
+    public boolean anterior() {
+        String username = claims().getSubject();
+        return username.equals(claims().getSubject()) && !claims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public TokenVerificado sinCache() {
+        return jwtUtil.leer(token);
+    }
+
+    @Benchmark
+    public TokenVerificado conCache() {
+        return jwtUtil.verificar(token);
+    }
+
+    private Claims claims() {
+        return Jwts.parserBuilder().setSigningKey(clave).build().parseClaimsJws(token).getBody();
+    }
+}
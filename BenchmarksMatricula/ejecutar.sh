@@ -0,0 +1,17 @@
+#!/bin/sh
+# Ejecuta los benchmarks de un módulo con el perfilador de GC y guarda el resultado en resultados/<modulo>.csv.
+# Con un CSV base, compara y termina con error si algún benchmark empeora más de TOLERANCIA % (10 por defecto).
+# Uso: ./ejecutar.sh matricula|auth [base.csv] [opciones de JMH...]   (requiere mvn package previo)
+set -e
+cd "$(dirname "$0")"
+MODULO=${1:?"indica el módulo: matricula o auth"}
+BASE=$2
+if [ $# -ge 2 ]; then shift 2; else shift $#; fi
+mkdir -p resultados
+SALIDA="resultados/$MODULO-$(date +%Y%m%d-%H%M%S).csv"
+
+java -jar "$MODULO-bench/target/benchmarks.jar" -prof gc -rf csv -rff "$SALIDA" "$@"
+echo "Resultados en $SALIDA"
+if [ -n "$BASE" ]; then
+  java CompararResultados.java "$BASE" "$SALIDA" "${TOLERANCIA:-10}"
+fi
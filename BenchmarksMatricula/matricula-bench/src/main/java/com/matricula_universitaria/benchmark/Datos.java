@@ -0,0 +1,102 @@
+package com.matricula_universitaria.benchmark;
+
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
+import com.matricula_universitaria.entity.Curso;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.entity.Profesor;
+import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.service.OcupacionService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Datos de prueba con la forma de un periodo real: secciones de varios cursos y profesores, y matrículas de
+ * estudiantes distintos repartidas entre ellas. Todo se genera de forma determinista para comparar ejecuciones.
+ */
+final class Datos {
+
+    private static final String[] NOMBRES = {"María", "José", "Lucía", "Carlos", "Valeria", "Diego", "Camila", "Andrés"};
+    private static final String[] APELLIDOS = {"Quispe", "Flores", "Huamán", "Rojas", "Mendoza", "Castillo", "Vargas"};
+    private static final String[] ESTADOS = {"PENDIENTE", "PAGADO", "COMPLETADO", Matricula.ESTADO_ANULADO};
+    private static final String[] DIAS = {"LUN-MIE", "MAR-JUE", "VIE"};
+
+    private Datos() {
+    }
+
+    static List<Seccion> secciones(int cantidad) {
+        List<Seccion> secciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            long id = i + 1L;
+            Curso curso = Curso.builder().id(id / 3 + 1).codigo("INF" + (100 + id / 3)).nombre("Curso de informática " + id / 3)
+                    .creditos(4).nivelSemestre((int) (id % 10) + 1).activo(true).build();
+            Profesor profesor = Profesor.builder().id(id % 40 + 1).nombre(NOMBRES[i % NOMBRES.length])
+                    .apellido(APELLIDOS[i % APELLIDOS.length]).dni(String.format("4%07d", id % 40))
+                    .email("profesor" + id % 40 + "@universidad.edu.pe").activo(true).build();
+            secciones.add(Seccion.builder().id(id).curso(curso).profesor(profesor).codigo("S" + (i % 4 + 1))
+                    .capacidadMaxima(40).aula("A-" + (200 + i % 30)).horario("08:00-10:00").dias(DIAS[i % DIAS.length])
+                    .periodoAcademico("2026-I").fechaInicio(LocalDate.of(2026, 3, 23)).fechaFin(LocalDate.of(2026, 7, 17))
+                    .fechaRegistro(LocalDateTime.of(2026, 2, 1, 9, 30)).activo(true).version(3L).build());
+        }
+        return secciones;
+    }
+
+    static List<Matricula> matriculas(int cantidad, List<Seccion> secciones) {
+        List<Matricula> matriculas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            long id = i + 1L;
+            Estudiante estudiante = Estudiante.builder().id(id).nombre(NOMBRES[(i + 3) % NOMBRES.length])
+                    .apellido(APELLIDOS[(i + 5) % APELLIDOS.length]).dni(String.format("7%07d", id))
+                    .email("estudiante" + id + "@universidad.edu.pe").fechaNacimiento(LocalDate.of(2004, 1 + i % 12, 1 + i % 28))
+                    .activo(true).build();
+            matriculas.add(Matricula.builder().id(id).estudiante(estudiante).seccion(secciones.get(i % secciones.size()))
+                    .fechaMatricula(LocalDate.of(2026, 3, 1 + i % 20)).estado(ESTADOS[i % ESTADOS.length])
+                    .costo(new BigDecimal("450.00")).metodoPago(i % 2 == 0 ? "TARJETA" : "TRANSFERENCIA")
+                    .fechaRegistro(LocalDateTime.of(2026, 3, 1 + i % 20, 10, i % 60)).version(1L).build());
+        }
+        return matriculas;
+    }
+
+    /** Índice de ocupación en memoria, como el de {@code OcupacionServiceImpl} una vez cargado. */
+    static OcupacionService ocupacion(List<Seccion> secciones) {
+        Map<Long, OcupacionSeccionResponseDto> indice = new ConcurrentHashMap<>();
+        for (Seccion seccion : secciones) {
+            indice.put(seccion.getId(), OcupacionSeccionResponseDto.of(seccion.getId(),
+                    (int) (seccion.getId() % 41), seccion.getCapacidadMaxima()));
+        }
+        return new OcupacionService() {
+            @Override
+            public Optional<OcupacionSeccionResponseDto> buscar(Long seccionId) {
+                return Optional.ofNullable(indice.get(seccionId));
+            }
+
+            @Override
+            public List<OcupacionSeccionResponseDto> listar() {
+                return List.copyOf(indice.values());
+            }
+
+            @Override
+            public void ajustarInscritos(Long seccionId, int delta) {
+            }
+
+            @Override
+            public void registrarSeccion(Long seccionId, int capacidadMaxima) {
+            }
+
+            @Override
+            public void eliminarSeccion(Long seccionId) {
+            }
+
+            @Override
+            public void recargar() {
+            }
+        };
+    }
+}
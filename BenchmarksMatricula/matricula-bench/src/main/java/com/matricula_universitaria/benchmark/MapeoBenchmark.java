@@ -0,0 +1,56 @@
+package com.matricula_universitaria.benchmark;
+
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.dto.SeccionResponseDto;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.mapper.MatriculaMapper;
+import com.matricula_universitaria.mapper.SeccionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entidad a DTO en los listados: una página por defecto ({@code limit=100}) de matrículas y de secciones. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoBenchmark {
+
+    private static final int PAGINA = 100;
+
+    private List<Matricula> matriculas;
+    private List<Seccion> secciones;
+    private MatriculaMapper matriculaMapper;
+    private SeccionMapper seccionMapper;
+
+    @Setup
+    public void preparar() {
+        secciones = Datos.secciones(PAGINA);
+        matriculas = Datos.matriculas(PAGINA, secciones);
+        matriculaMapper = new MatriculaMapper();
+        seccionMapper = new SeccionMapper(Datos.ocupacion(secciones));
+    }
+
+    @Benchmark
+    public List<MatriculaResponseDto> matriculaToResponse() {
+        return matriculaMapper.toResponseList(matriculas);
+    }
+
+    @Benchmark
+    public List<SeccionResponseDto> seccionToResponse() {
+        return seccionMapper.toResponseList(secciones);
+    }
+}
@@ -0,0 +1,54 @@
+package com.matricula_universitaria.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.mapper.MatriculaMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuerpo de {@code GET /api/matriculas}: la lista de DTOs a JSON con un {@link ObjectMapper} configurado como el de
+ * Spring Boot. {@code writerFor} fija el tipo de la lista, como hace el conversor de Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionJsonBenchmark {
+
+    @Param({"100", "1000"})
+    public int tamano;
+
+    private List<MatriculaResponseDto> matriculas;
+    private ObjectWriter writer;
+
+    @Setup
+    public void preparar() {
+        matriculas = new MatriculaMapper().toResponseList(Datos.matriculas(tamano, Datos.secciones(tamano / 4 + 1)));
+        writer = Jackson2ObjectMapperBuilder.json().build()
+                .writerFor(new TypeReference<List<MatriculaResponseDto>>() { });
+    }
+
+    @Benchmark
+    public byte[] listaMatriculas() throws JsonProcessingException {
+        return writer.writeValueAsBytes(matriculas);
+    }
+}
@@ -68,7 +68,7 @@ export default function Cursos() {
   const loadCursos = async () => {
     if (!canRead) return;
     try {
-      const response = await authorizedFetch('/cursos');
+      const response = await authorizedFetch('/cursos?unpaged=true');
       if (!response.ok) {
         throw new Error('Error al cargar cursos');
       }
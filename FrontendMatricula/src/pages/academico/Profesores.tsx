@@ -79,7 +79,7 @@ export default function Profesores() {
   const loadProfesores = async () => {
     if (!canRead) return;
     try {
-      const response = await authorizedFetch('/profesores');
+      const response = await authorizedFetch('/profesores?unpaged=true');
       if (!response.ok) {
         throw new Error('Error al cargar profesores');
       }
@@ -50,6 +50,13 @@ interface SeccionResponseDto {
   activo: boolean;
 }
 
+interface OcupacionSeccionResponseDto {
+  seccionId: number;
+  inscritos: number;
+  capacidadMaxima: number;
+  vacantes: number;
+}
+
 interface CursoOption {
   id: string;
   nombre: string;
@@ -94,7 +101,7 @@ export default function Secciones() {
   const canEdit = hasPermission('secciones', 'UPDATE');
   const canDelete = hasPermission('secciones', 'DELETE');
 
-  const mapDtoToSeccion = (dto: SeccionResponseDto): Seccion => ({
+  const mapDtoToSeccion = (dto: SeccionResponseDto, inscritos: number): Seccion => ({
     id: String(dto.id),
     codigo: dto.codigo,
     curso: dto.cursoNombre,
@@ -103,21 +110,27 @@ export default function Secciones() {
     profesorId: dto.profesorId,
     horario: dto.horario ?? '',
     cupo: dto.capacidadMaxima,
-    // El backend aún no expone la cantidad de inscritos por sección;
-    // por ahora lo inicializamos en 0 para que la UI compile y podamos
-    // completar esta parte cuando exista ese dato real.
-    inscritos: 0,
+    inscritos,
   });
 
   const loadSecciones = async () => {
     if (!canRead) return;
     try {
-      const response = await authorizedFetch('/secciones');
+      // El catálogo se cachea sin los inscritos; la ocupación en vivo llega por separado y se une por id.
+      const [response, ocupacionResponse] = await Promise.all([
+        authorizedFetch('/secciones?unpaged=true'),
+        authorizedFetch('/secciones/ocupacion'),
+      ]);
       if (!response.ok) {
         throw new Error('Error al cargar secciones');
       }
       const data: SeccionResponseDto[] = await response.json();
-      setSecciones(data.map(mapDtoToSeccion));
+      const inscritos = new Map<number, number>();
+      if (ocupacionResponse.ok) {
+        const ocupaciones: OcupacionSeccionResponseDto[] = await ocupacionResponse.json();
+        ocupaciones.forEach((o) => inscritos.set(o.seccionId, o.inscritos));
+      }
+      setSecciones(data.map((dto) => mapDtoToSeccion(dto, inscritos.get(dto.id) ?? 0)));
     } catch (error) {
       console.error(error);
       toast({
@@ -129,7 +142,7 @@ export default function Secciones() {
 
   const loadCursos = async () => {
     try {
-      const response = await authorizedFetch('/cursos');
+      const response = await authorizedFetch('/cursos?unpaged=true');
       if (!response.ok) return;
       const data: CursoResponseDto[] = await response.json();
       setCursos(
@@ -146,7 +159,7 @@ export default function Secciones() {
 
   const loadProfesores = async () => {
     try {
-      const response = await authorizedFetch('/profesores');
+      const response = await authorizedFetch('/profesores?unpaged=true');
       if (!response.ok) return;
       const data: ProfesorResponseDto[] = await response.json();
       setProfesores(
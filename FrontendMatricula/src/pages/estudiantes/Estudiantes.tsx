@@ -73,7 +73,7 @@ export default function Estudiantes() {
   const loadEstudiantes = async () => {
     if (!canRead) return;
     try {
-      const response = await authorizedFetch('/estudiantes');
+      const response = await authorizedFetch('/estudiantes?unpaged=true');
       if (!response.ok) {
         throw new Error('Error al cargar estudiantes');
       }
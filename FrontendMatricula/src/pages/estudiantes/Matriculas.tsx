@@ -96,7 +96,7 @@ export default function Matriculas() {
   const loadMatriculas = async () => {
     if (!canRead) return;
     try {
-      const response = await authorizedFetch('/matriculas');
+      const response = await authorizedFetch('/matriculas?unpaged=true');
       if (!response.ok) {
         throw new Error('Error al cargar matrículas');
       }
@@ -113,7 +113,7 @@ export default function Matriculas() {
 
   const loadEstudiantes = async () => {
     try {
-      const response = await authorizedFetch('/estudiantes');
+      const response = await authorizedFetch('/estudiantes?unpaged=true');
       if (!response.ok) return;
       const data: EstudianteListDto[] = await response.json();
       setEstudiantes(
@@ -129,7 +129,7 @@ export default function Matriculas() {
 
   const loadSecciones = async () => {
     try {
-      const response = await authorizedFetch('/secciones');
+      const response = await authorizedFetch('/secciones?unpaged=true');
       if (!response.ok) return;
       const data: SeccionListDto[] = await response.json();
       setSecciones(
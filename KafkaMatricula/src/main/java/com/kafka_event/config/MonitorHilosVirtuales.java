@@ -0,0 +1,79 @@
+package com.kafka_event.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Con {@code spring.threads.virtual.enabled=true}, escucha el evento JFR {@code jdk.VirtualThreadPinned}: un hilo
+ * virtual que bloquea dentro de un {@code synchronized} o de código nativo retiene su hilo portador. Cada bloqueo
+ * que supera el umbral se mide en {@code jvm.threads.virtual.pinned} y cada pila distinta se registra una sola vez.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class MonitorHilosVirtuales {
+
+    private static final int MAX_PILAS_REGISTRADAS = 256;
+    private static final int MARCOS_POR_PILA = 12;
+
+    private final Duration umbral;
+    private final Timer bloqueos;
+    private final Set<String> pilasRegistradas = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public MonitorHilosVirtuales(MeterRegistry meterRegistry,
+                                 @Value("${hilos-virtuales.pinning-umbral-ms:20}") long umbralMs) {
+        this.umbral = Duration.ofMillis(umbralMs);
+        this.bloqueos = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Tiempo que un hilo virtual retuvo su hilo portador")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(umbral).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::registrar);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void detener() {
+        stream.close();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        bloqueos.record(evento.getDuration());
+        if (evento.getStackTrace() == null || pilasRegistradas.size() >= MAX_PILAS_REGISTRADAS) {
+            return;
+        }
+        String pila = evento.getStackTrace().getFrames().stream()
+                .limit(MARCOS_POR_PILA)
+                .map(MonitorHilosVirtuales::marco)
+                .collect(Collectors.joining("\n\tat "));
+        if (pilasRegistradas.add(pila)) {
+            log.warn("Hilo virtual retuvo su portador {} ms en {}:\n\tat {}",
+                    evento.getDuration().toMillis(), evento.getThread().getJavaName(), pila);
+        }
+    }
+
+    private static String marco(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName()
+                + "(línea " + marco.getLineNumber() + ")";
+    }
+}
@@ -0,0 +1,87 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga de lazo cerrado: {@code concurrencia} clientes piden la URL sin pausa durante
+ * {@code segundos} (tras un calentamiento) e informa peticiones por segundo, p50, p99 y errores.
+ *
+ * <pre>java bench/CargaHttp.java http://localhost:8086/api/matriculas?limit=50 500 30</pre>
+ */
+public class CargaHttp {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int concurrencia = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int calentamiento = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest peticion = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        long inicioMedicion = System.nanoTime() + Duration.ofSeconds(calentamiento).toNanos();
+        long fin = inicioMedicion + Duration.ofSeconds(segundos).toNanos();
+        LongAdder errores = new LongAdder();
+        List<long[]> latencias = new ArrayList<>();
+
+        try (var hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencia; i++) {
+                long[][] propias = {new long[1024]};
+                int[] n = {0};
+                hilos.execute(() -> {
+                    while (true) {
+                        long t0 = System.nanoTime();
+                        if (t0 >= fin) {
+                            break;
+                        }
+                        boolean ok;
+                        try {
+                            ok = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (Exception ex) {
+                            ok = false;
+                        }
+                        long t1 = System.nanoTime();
+                        // Cuenta lo que termina dentro de la ventana, aunque haya empezado en el calentamiento.
+                        if (t1 < inicioMedicion || t1 > fin) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errores.increment();
+                            continue;
+                        }
+                        if (n[0] == propias[0].length) {
+                            propias[0] = Arrays.copyOf(propias[0], n[0] * 2);
+                        }
+                        propias[0][n[0]++] = t1 - t0;
+                    }
+                    synchronized (latencias) {
+                        latencias.add(Arrays.copyOf(propias[0], n[0]));
+                    }
+                });
+            }
+        }
+
+        long[] todas = latencias.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%s concurrencia=%d  %.0f req/s  p50=%.1f ms  p99=%.1f ms  max=%.1f ms  errores=%d%n",
+                uri, concurrencia, todas.length / (double) segundos,
+                percentil(todas, 0.50), percentil(todas, 0.99),
+                todas.length > 0 ? todas[todas.length - 1] / 1e6 : 0, errores.sum());
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,29 @@
+#!/bin/sh
+# Compara hilos de plataforma y virtuales: arranca el jar en cada modo y lanza CargaHttp contra cada URL y concurrencia.
+# Uso: bench/comparar-hilos.sh [segundos] [concurrencias] [urls...]   (requiere mvn package previo)
+set -e
+cd "$(dirname "$0")/.."
+SEGUNDOS=${1:-30}
+CONCURRENCIAS=${2:-"50 500 2000"}
+shift 2 2>/dev/null || shift $#
+URLS=${*:-"http://localhost:8086/api/matriculas?limit=50 http://localhost:8086/api/estudiantes/search?q=per"}
+JAR=$(ls target/*-SNAPSHOT.jar)
+
+for MODO in false true; do
+  HILOS_VIRTUALES=$MODO java -Xmx1g -jar "$JAR" \
+      --spring.jpa.show-sql=false \
+      --logging.level.org.hibernate.SQL=WARN \
+      --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN \
+      > "target/bench-hilos-virtuales-$MODO.log" 2>&1 &
+  PID=$!
+  trap 'kill $PID 2>/dev/null' EXIT
+  until curl -sf http://localhost:8086/actuator/health > /dev/null; do sleep 1; done
+  echo "== spring.threads.virtual.enabled=$MODO"
+  for URL in $URLS; do
+    for C in $CONCURRENCIAS; do
+      java bench/CargaHttp.java "$URL" "$C" "$SEGUNDOS"
+    done
+  done
+  kill $PID
+  wait $PID 2>/dev/null || true
+done
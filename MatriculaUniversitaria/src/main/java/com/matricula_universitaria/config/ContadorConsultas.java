@@ -0,0 +1,59 @@
+package com.matricula_universitaria.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual mientras hay un conteo abierto con
+ * {@link #iniciar()}. Fuera de un conteo no hace nada. Un conteo se puede continuar en otro hilo con
+ * {@link #continuar}, p. ej. cuando la petición delega su trabajo en un hilo virtual.
+ */
+@Component
+public class ContadorConsultas implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<AtomicInteger> SENTENCIAS = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger sentencias = SENTENCIAS.get();
+        if (sentencias != null) {
+            sentencias.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public AtomicInteger iniciar() {
+        AtomicInteger sentencias = new AtomicInteger();
+        SENTENCIAS.set(sentencias);
+        return sentencias;
+    }
+
+    /** Conteo abierto en el hilo actual, o {@code null} si no hay ninguno. */
+    public AtomicInteger actual() {
+        return SENTENCIAS.get();
+    }
+
+    /** Suma al conteo de otro hilo (obtenido con {@link #actual()}) las sentencias de este hasta {@link #terminar()}. */
+    public void continuar(AtomicInteger sentencias) {
+        if (sentencias != null) {
+            SENTENCIAS.set(sentencias);
+        }
+    }
+
+    /** Cierra el conteo del hilo y devuelve las sentencias preparadas desde {@link #iniciar()}. */
+    public int terminar() {
+        AtomicInteger sentencias = SENTENCIAS.get();
+        SENTENCIAS.remove();
+        return sentencias != null ? sentencias.get() : 0;
+    }
+}
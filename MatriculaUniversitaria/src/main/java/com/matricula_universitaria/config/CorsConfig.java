@@ -1,5 +1,6 @@
 package com.matricula_universitaria.config;
 
+import com.matricula_universitaria.controller.ListadoResponses;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -16,7 +17,8 @@ public class CorsConfig {
                 registry.addMapping("/api/**")
                         .allowedOrigins("*")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
-                        .allowedHeaders("*");
+                        .allowedHeaders("*")
+                        .exposedHeaders(ListadoResponses.SIGUIENTE_CURSOR_HEADER);
             }
         };
     }
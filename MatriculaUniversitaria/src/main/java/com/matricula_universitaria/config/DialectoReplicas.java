@@ -0,0 +1,46 @@
+package com.matricula_universitaria.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Las transacciones {@code readOnly} pueden leer de una réplica atrasada, así que no usan la caché de segundo nivel
+ * ni la de consultas ({@link CacheMode#IGNORE}). Con {@link CacheMode#GET} no bastaría: Hibernate guarda en la caché
+ * de consultas el resultado de un fallo aunque el modo no permita escribir. Así ninguna caché compartida por todo el
+ * proceso guarda datos anteriores a una escritura ya confirmada en el primario. Al terminar se restaura el modo
+ * anterior, porque con open-in-view la misma sesión sirve a las transacciones siguientes de la petición.
+ */
+class DialectoReplicas extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object datos = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return datos;
+        }
+        Session session = getSession(entityManager);
+        CacheMode anterior = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        return new DatosLectura(datos, session, anterior);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof DatosLectura lectura) {
+            lectura.session().setCacheMode(lectura.anterior());
+            super.cleanupTransaction(lectura.datos());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record DatosLectura(Object datos, Session session, CacheMode anterior) {
+    }
+}
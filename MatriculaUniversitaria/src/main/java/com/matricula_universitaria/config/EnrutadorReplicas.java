@@ -0,0 +1,165 @@
+package com.matricula_universitaria.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Origen de conexiones de las transacciones {@code readOnly}. Reparte las lecturas entre las réplicas cuyo
+ * retraso medido no supera {@code retrasoMaximoMs} y usa el primario cuando ninguna cumple, cuando una réplica
+ * falla al entregar la conexión o cuando el cliente escribió hace poco ({@link #leerDelPrimario}). La medición
+ * corre en un hilo propio para no competir con las tareas {@code @Scheduled}; una medición con más de
+ * {@code vigenciaMedicionMs} de antigüedad cuenta como retraso excesivo.
+ */
+@Slf4j
+public class EnrutadorReplicas extends AbstractDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> LECTURA_PRIMARIA = new ThreadLocal<>();
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String consultaRetraso;
+    private final long retrasoMaximoMs;
+    private final long vigenciaMedicionNanos;
+    private final AtomicInteger turno = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService verificacion = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("verificacion-replicas").daemon().factory());
+
+    public EnrutadorReplicas(DataSource primario, List<HikariDataSource> replicas, String consultaRetraso,
+                             long retrasoMaximoMs, long verificacionMs, long vigenciaMedicionMs,
+                             MeterRegistry meterRegistry) {
+        this.primario = primario;
+        this.consultaRetraso = consultaRetraso;
+        this.retrasoMaximoMs = retrasoMaximoMs;
+        this.vigenciaMedicionNanos = TimeUnit.MILLISECONDS.toNanos(vigenciaMedicionMs);
+        this.meterRegistry = meterRegistry;
+        for (HikariDataSource dataSource : replicas) {
+            Replica replica = new Replica(dataSource);
+            Gauge.builder("matricula.replicas.retraso", replica, r -> r.retrasoMs)
+                    .description("Retraso de replicación medido en la réplica (ms; -1 si no responde)")
+                    .baseUnit("milliseconds")
+                    .tag("replica", dataSource.getPoolName())
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        }
+        verificar();
+        verificacion.scheduleWithFixedDelay(this::verificar, verificacionMs, verificacionMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Marca el hilo actual para que sus lecturas vayan al primario (read-your-writes). */
+    public static void leerDelPrimario(boolean activo) {
+        if (activo) {
+            LECTURA_PRIMARIA.set(Boolean.TRUE);
+        } else {
+            LECTURA_PRIMARIA.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (Boolean.TRUE.equals(LECTURA_PRIMARIA.get())) {
+            return delPrimario("lectura-propia");
+        }
+        Replica replica = elegir();
+        if (replica == null) {
+            return delPrimario(replicas.isEmpty() ? "sin-replica" : "retraso");
+        }
+        try {
+            Connection conexion = replica.dataSource.getConnection();
+            contar(replica.dataSource.getPoolName(), "replica");
+            return conexion;
+        } catch (SQLException ex) {
+            replica.retrasoMs = -1;
+            log.warn("Réplica {} no disponible, se lee del primario: {}", replica.dataSource.getPoolName(), ex.toString());
+            return delPrimario("error");
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Las credenciales de las réplicas se configuran en cada pool");
+    }
+
+    /** Mide el retraso de cada réplica; una réplica que no responde queda fuera hasta la siguiente medición. */
+    public synchronized void verificar() {
+        for (Replica replica : replicas) {
+            try (Connection conexion = replica.dataSource.getConnection();
+                 Statement sentencia = conexion.createStatement()) {
+                sentencia.setQueryTimeout(2);
+                try (ResultSet fila = sentencia.executeQuery(consultaRetraso)) {
+                    replica.retrasoMs = fila.next() ? Math.max(0, fila.getLong(1)) : -1;
+                    replica.medidaEn = System.nanoTime();
+                }
+            } catch (SQLException ex) {
+                if (replica.retrasoMs >= 0) {
+                    log.warn("No se pudo medir el retraso de la réplica {}: {}",
+                            replica.dataSource.getPoolName(), ex.toString());
+                }
+                replica.retrasoMs = -1;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        verificacion.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Replica elegir() {
+        int n = replicas.size();
+        int inicio = Math.floorMod(turno.getAndIncrement(), Math.max(n, 1));
+        long ahora = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((inicio + i) % n);
+            long retraso = replica.retrasoMs;
+            if (retraso >= 0 && retraso <= retrasoMaximoMs && ahora - replica.medidaEn <= vigenciaMedicionNanos) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Connection delPrimario(String motivo) throws SQLException {
+        contar("primario", motivo);
+        return primario.getConnection();
+    }
+
+    private void contar(String destino, String motivo) {
+        Counter.builder("matricula.replicas.lecturas")
+                .description("Conexiones entregadas a transacciones de solo lectura")
+                .tag("destino", destino)
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        // -1 hasta la primera medición correcta o si la réplica no responde.
+        private volatile long retrasoMs = -1;
+        // System.nanoTime() de la última medición correcta.
+        private volatile long medidaEn;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
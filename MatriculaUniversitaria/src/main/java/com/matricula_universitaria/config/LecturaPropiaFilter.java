@@ -0,0 +1,65 @@
+package com.matricula_universitaria.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes con réplicas: toda petición que escribe deja en el cliente una cookie de vida corta y,
+ * mientras el cliente la envíe, sus lecturas van al primario aunque la réplica aún no haya aplicado la escritura.
+ */
+@Component
+@ConditionalOnProperty("matricula.replicas.urls")
+public class LecturaPropiaFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "lectura_primaria";
+
+    private static final Set<String> METODOS_SEGUROS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration ventana;
+
+    public LecturaPropiaFilter(@Value("${matricula.replicas.ventana-lectura-propia-ms:5000}") long ventanaMs) {
+        this.ventana = Duration.ofMillis(ventanaMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean escritura = !METODOS_SEGUROS.contains(request.getMethod());
+        if (escritura) {
+            // Antes de ejecutar la petición: después la respuesta puede estar ya confirmada.
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                    .maxAge(ventana).path("/").httpOnly(true).sameSite("Lax").build().toString());
+        }
+        EnrutadorReplicas.leerDelPrimario(escritura || tieneCookie(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            EnrutadorReplicas.leerDelPrimario(false);
+        }
+    }
+
+    private static boolean tieneCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
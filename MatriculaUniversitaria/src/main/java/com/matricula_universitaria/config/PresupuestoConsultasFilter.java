@@ -0,0 +1,119 @@
+package com.matricula_universitaria.config;
+
+import com.matricula_universitaria.controller.PresupuestoConsultas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Detector de N+1: cuenta las sentencias SQL de cada petición a {@code /api} y las compara con el presupuesto de su
+ * ruta ({@link PresupuestoConsultas}). Un exceso se registra en el log y en {@code matricula.consultas.excedidas};
+ * con {@code matricula.consultas.exceso=fallar} (en las pruebas) además lanza una excepción, y la respuesta se
+ * retiene hasta evaluar el conteo para que el cliente no reciba un 200 ya enviado. En los endpoints asíncronos el
+ * conteo se evalúa en el despacho final e incluye los hilos que lo continúan ({@link ContadorConsultas#continuar});
+ * lo que escribe un {@code StreamingResponseBody} queda fuera.
+ */
+@Slf4j
+@Component
+public class PresupuestoConsultasFilter extends OncePerRequestFilter {
+
+    private static final String CONTEO = PresupuestoConsultasFilter.class.getName() + ".conteo";
+
+    private final ContadorConsultas contadorConsultas;
+    private final MeterRegistry meterRegistry;
+    private final int presupuestoPorDefecto;
+    private final boolean fallar;
+
+    public PresupuestoConsultasFilter(ContadorConsultas contadorConsultas,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${matricula.consultas.presupuesto-por-defecto:20}") int presupuestoPorDefecto,
+                                      @Value("${matricula.consultas.exceso:advertir}") String exceso) {
+        this.contadorConsultas = contadorConsultas;
+        this.meterRegistry = meterRegistry;
+        this.presupuestoPorDefecto = presupuestoPorDefecto;
+        this.fallar = "fallar".equalsIgnoreCase(exceso);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletResponse respuesta = response;
+        if (isAsyncDispatch(request)) {
+            contadorConsultas.continuar((AtomicInteger) request.getAttribute(CONTEO));
+        } else {
+            request.setAttribute(CONTEO, contadorConsultas.iniciar());
+            if (fallar) {
+                respuesta = new ContentCachingResponseWrapper(response);
+            }
+        }
+        int sentencias;
+        try {
+            chain.doFilter(request, respuesta);
+        } finally {
+            sentencias = contadorConsultas.terminar();
+        }
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        String exceso = evaluar(request, sentencias);
+        if (exceso != null && fallar) {
+            throw new IllegalStateException(exceso);
+        }
+        ContentCachingResponseWrapper retenida = WebUtils.getNativeResponse(respuesta, ContentCachingResponseWrapper.class);
+        if (retenida != null) {
+            retenida.copyBodyToResponse();
+        }
+    }
+
+    /** Registra las sentencias de la petición y devuelve el mensaje de exceso, o {@code null} si cumple. */
+    private String evaluar(HttpServletRequest request, int sentencias) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return null;
+        }
+        String ruta = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("matricula.consultas.peticion")
+                .description("Sentencias SQL ejecutadas por petición")
+                .tag("ruta", ruta)
+                .register(meterRegistry)
+                .record(sentencias);
+
+        PresupuestoConsultas anotacion = handler.getMethodAnnotation(PresupuestoConsultas.class);
+        int presupuesto = anotacion != null ? anotacion.value() : presupuestoPorDefecto;
+        if (sentencias <= presupuesto) {
+            return null;
+        }
+        Counter.builder("matricula.consultas.excedidas")
+                .description("Peticiones que superaron el presupuesto de sentencias SQL de su ruta")
+                .tag("ruta", ruta)
+                .register(meterRegistry)
+                .increment();
+        String mensaje = ruta + " ejecutó " + sentencias + " sentencias SQL; su presupuesto es " + presupuesto;
+        log.warn("{} ({})", mensaje, request.getQueryString());
+        return mensaje;
+    }
+}
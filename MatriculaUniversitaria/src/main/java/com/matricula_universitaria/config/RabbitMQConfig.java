@@ -0,0 +1,38 @@
+package com.matricula_universitaria.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Misma topología que declara RabbitMQMatricula (notification-service). Declararla también aquí asegura que los
+ * eventos publicados por el relay del outbox no se pierdan si este servicio arranca antes que el de notificaciones.
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String NOTIFICATIONS_EXCHANGE = "notifications.exchange";
+    public static final String MATRICULA_QUEUE = "notifications.matricula";
+    public static final String MATRICULA_ROUTING_KEY = "matricula.created";
+
+    @Bean
+    public TopicExchange notificationsExchange() {
+        return new TopicExchange(NOTIFICATIONS_EXCHANGE);
+    }
+
+    @Bean
+    public Queue matriculaQueue() {
+        return QueueBuilder.durable(MATRICULA_QUEUE).build();
+    }
+
+    @Bean
+    public Binding matriculaBinding(TopicExchange notificationsExchange, Queue matriculaQueue) {
+        return BindingBuilder.bind(matriculaQueue)
+                .to(notificationsExchange)
+                .with(MATRICULA_ROUTING_KEY);
+    }
+}
@@ -0,0 +1,94 @@
+package com.matricula_universitaria.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecturas en réplicas de Postgres. Solo se activa si {@code matricula.replicas.urls} tiene al menos una URL;
+ * sin ella el DataSource lo configura Spring Boot como siempre. El proxy perezoso retrasa la obtención de la
+ * conexión hasta conocer el flag {@code readOnly} de la transacción y, con él, elige el pool de réplicas.
+ * Las cargas que llenan cachés compartidas (catálogos, caché de consultas, ocupación, reporte) usan transacciones
+ * de lectura-escritura para leer siempre del primario; las de solo lectura no usan las cachés de Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty("matricula.replicas.urls")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public EnrutadorReplicas enrutadorReplicas(HikariDataSource primarioDataSource,
+                                               DataSourceProperties properties,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${matricula.replicas.urls}") List<String> urls,
+                                               @Value("${matricula.replicas.pool-maximo:10}") int poolMaximo,
+                                               @Value("${matricula.replicas.espera-conexion-ms:1000}") long esperaConexionMs,
+                                               @Value("${matricula.replicas.retraso-maximo-ms:1000}") long retrasoMaximoMs,
+                                               @Value("${matricula.replicas.verificacion-ms:1000}") long verificacionMs,
+                                               @Value("${matricula.replicas.vigencia-medicion-ms:3000}") long vigenciaMedicionMs,
+                                               @Value("${matricula.replicas.consulta-retraso:" + CONSULTA_RETRASO + "}")
+                                               String consultaRetraso) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setMaximumPoolSize(poolMaximo);
+            replica.setConnectionTimeout(esperaConexionMs);
+            replica.setReadOnly(true);
+            // El pool no debe fallar al arrancar si la réplica aún no responde: la medición de retraso la excluye.
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new EnrutadorReplicas(primarioDataSource, replicas, consultaRetraso, retrasoMaximoMs,
+                verificacionMs, vigenciaMedicionMs, meterRegistry);
+    }
+
+    /** Se aplica antes de {@code afterPropertiesSet}, cuando la fábrica todavía toma el dialecto configurado. */
+    @Bean
+    public static BeanPostProcessor dialectoReplicas() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean fabrica) {
+                    fabrica.setJpaDialect(new DialectoReplicas());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, EnrutadorReplicas enrutadorReplicas) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primarioDataSource);
+        proxy.setReadOnlyDataSource(enrutadorReplicas);
+        return proxy;
+    }
+
+    /** Retraso en ms de una réplica en streaming; 0 si ya aplicó todo lo recibido o si no está en recuperación. */
+    static final String CONSULTA_RETRASO = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+}
@@ -2,10 +2,14 @@ package com.matricula_universitaria.controller;
 
 import com.matricula_universitaria.dto.CursoRequestDto;
 import com.matricula_universitaria.dto.CursoResponseDto;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
 import com.matricula_universitaria.service.CursoService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -15,9 +19,15 @@ import java.util.List;
 public class CursoController {
 
     private final CursoService cursoService;
+    private final ListadoResponses listadoResponses;
+    private final CatalogoCacheService catalogoCacheService;
 
-    public CursoController(CursoService cursoService) {
+    public CursoController(CursoService cursoService,
+                           ListadoResponses listadoResponses,
+                           CatalogoCacheService catalogoCacheService) {
         this.cursoService = cursoService;
+        this.listadoResponses = listadoResponses;
+        this.catalogoCacheService = catalogoCacheService;
     }
 
     @PostMapping
@@ -45,7 +55,21 @@ public class CursoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CursoResponseDto>> listar() {
-        return ResponseEntity.ok(cursoService.listarTodos());
+    public ResponseEntity<List<CursoResponseDto>> listar(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return listadoResponses.pagina(cursoService.listarPagina(after, limit));
+    }
+
+    @GetMapping(params = {"unpaged=true", "!format"})
+    public ResponseEntity<byte[]> listarTodos(WebRequest request) {
+        return listadoResponses.catalogo(request,
+                catalogoCacheService.obtener(Catalogo.CURSOS, cursoService::listarTodos));
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> listarNdjson(
+            @RequestParam(name = "after", required = false) Long after) {
+        return listadoResponses.<CursoResponseDto>ndjson(consumer -> cursoService.recorrerTodos(after, consumer));
     }
 }
@@ -1,12 +1,16 @@
 package com.matricula_universitaria.controller;
 
+import com.matricula_universitaria.dto.BusquedaResponseDto;
+import com.matricula_universitaria.dto.EstudianteImportResponseDto;
 import com.matricula_universitaria.dto.EstudianteRequestDto;
 import com.matricula_universitaria.dto.EstudianteResponseDto;
 import com.matricula_universitaria.service.EstudianteService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -15,9 +19,12 @@ import java.util.List;
 public class EstudianteController {
 
     private final EstudianteService estudianteService;
+    private final ListadoResponses listadoResponses;
 
-    public EstudianteController(EstudianteService estudianteService) {
+    public EstudianteController(EstudianteService estudianteService,
+                                ListadoResponses listadoResponses) {
         this.estudianteService = estudianteService;
+        this.listadoResponses = listadoResponses;
     }
 
     @PostMapping
@@ -26,6 +33,11 @@ public class EstudianteController {
         return ResponseEntity.created(URI.create("/api/estudiantes/" + creado.id())).body(creado);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<EstudianteImportResponseDto> importar(InputStream csv) {
+        return ResponseEntity.ok(estudianteService.importar(csv));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<EstudianteResponseDto> actualizar(@PathVariable Long id,
                                                             @Valid @RequestBody EstudianteRequestDto request) {
@@ -39,6 +51,13 @@ public class EstudianteController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<BusquedaResponseDto>> buscar(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(estudianteService.buscar(q, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EstudianteResponseDto> obtenerPorId(@PathVariable Long id) {
         return ResponseEntity.ok(estudianteService.obtenerPorId(id));
@@ -46,10 +65,22 @@ public class EstudianteController {
 
     @GetMapping
     public ResponseEntity<List<EstudianteResponseDto>> listar(
-            @RequestParam(name = "apellido", required = false) String apellido) {
+            @RequestParam(name = "apellido", required = false) String apellido,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "unpaged", defaultValue = "false") boolean unpaged) {
         if (apellido != null && !apellido.isBlank()) {
             return ResponseEntity.ok(estudianteService.buscarPorApellido(apellido));
         }
-        return ResponseEntity.ok(estudianteService.listarTodos());
+        if (unpaged) {
+            return ResponseEntity.ok(estudianteService.listarTodos());
+        }
+        return listadoResponses.pagina(estudianteService.listarPagina(after, limit));
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> listarNdjson(
+            @RequestParam(name = "after", required = false) Long after) {
+        return listadoResponses.<EstudianteResponseDto>ndjson(consumer -> estudianteService.recorrerTodos(after, consumer));
     }
 }
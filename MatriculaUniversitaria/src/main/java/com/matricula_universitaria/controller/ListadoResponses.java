@@ -0,0 +1,154 @@
+package com.matricula_universitaria.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matricula_universitaria.dto.PaginaCursorDto;
+import com.matricula_universitaria.exceptions.BadRequestException;
+import com.matricula_universitaria.service.CatalogoCacheService.CatalogoSerializado;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ListadoResponses {
+
+    public static final String SIGUIENTE_CURSOR_HEADER = "X-Next-Cursor";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    public static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public ListadoResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> ResponseEntity<List<T>> pagina(PaginaCursorDto<T> pagina) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (pagina.siguienteCursor() != null) {
+            builder.header(SIGUIENTE_CURSOR_HEADER, pagina.siguienteCursor().toString());
+        }
+        return builder.body(pagina.elementos());
+    }
+
+    /**
+     * Responde con los bytes ya serializados del catálogo, comprimidos si el cliente acepta gzip. Cada
+     * codificación tiene su propia ETag; si coincide con {@code If-None-Match}, Spring responde 304 sin cuerpo.
+     */
+    public ResponseEntity<byte[]> catalogo(WebRequest request, CatalogoSerializado catalogo) {
+        boolean gzip = aceptaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag("\"" + catalogo.etag() + (gzip ? "-gzip" : "") + "\"");
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? catalogo.gzip() : catalogo.json());
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<T>> origen) {
+        StreamingResponseBody body = out -> {
+            OutputStream buffer = new BufferedOutputStream(out, BUFFER);
+            origen.accept(elemento -> escribirLinea(buffer, elemento));
+            buffer.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> exportar(String archivo, String formato, boolean gzip,
+                                                              List<String> columnas, Function<T, List<?>> fila,
+                                                              Consumer<Consumer<T>> origen) {
+        boolean csv = switch (formato) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new BadRequestException("Formato de exportación no soportado: " + formato);
+        };
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream comprimido = gzip ? new GZIPOutputStream(out, BUFFER) : null;
+            OutputStream buffer = new BufferedOutputStream(comprimido != null ? comprimido : out, BUFFER);
+            if (csv) {
+                Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+                escribirFilaCsv(writer, columnas);
+                origen.accept(elemento -> escribirFilaCsv(writer, fila.apply(elemento)));
+                writer.flush();
+            } else {
+                origen.accept(elemento -> escribirLinea(buffer, elemento));
+                buffer.flush();
+            }
+            if (comprimido != null) {
+                comprimido.finish();
+            }
+        };
+        String nombre = archivo + "." + formato + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : csv ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nombre).build().toString())
+                .body(body);
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] partes = codificacion.split(";");
+            if (partes[0].trim().equals("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private void escribirFilaCsv(Writer writer, List<?> valores) {
+        try {
+            for (int i = 0; i < valores.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object valor = valores.get(i);
+                String texto = valor != null ? valor.toString() : "";
+                if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0
+                        || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(texto.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(texto);
+                }
+            }
+            writer.write("\r\n");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void escribirLinea(OutputStream out, Object elemento) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(elemento));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
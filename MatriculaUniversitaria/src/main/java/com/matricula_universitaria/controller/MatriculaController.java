@@ -1,36 +1,75 @@
 package com.matricula_universitaria.controller;
 
+import com.matricula_universitaria.dto.MatriculaBatchResponseDto;
 import com.matricula_universitaria.dto.MatriculaRequestDto;
 import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.service.AdmisionMatriculaService;
 import com.matricula_universitaria.service.MatriculaService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/matriculas")
 public class MatriculaController {
 
+    private static final List<String> COLUMNAS_EXPORTACION = List.of(
+            "id", "estudianteId", "estudianteNombreCompleto", "seccionId", "seccionCodigo", "cursoCodigo",
+            "fechaMatricula", "estado", "costo", "metodoPago", "fechaRegistro");
+
     private final MatriculaService matriculaService;
+    private final AdmisionMatriculaService admisionMatriculaService;
+    private final ListadoResponses listadoResponses;
 
-    public MatriculaController(MatriculaService matriculaService) {
+    public MatriculaController(MatriculaService matriculaService,
+                               AdmisionMatriculaService admisionMatriculaService,
+                               ListadoResponses listadoResponses) {
         this.matriculaService = matriculaService;
+        this.admisionMatriculaService = admisionMatriculaService;
+        this.listadoResponses = listadoResponses;
     }
 
     @PostMapping
-    public ResponseEntity<MatriculaResponseDto> crear(@Valid @RequestBody MatriculaRequestDto request) {
-        MatriculaResponseDto creada = matriculaService.crear(request);
-        return ResponseEntity.created(URI.create("/api/matriculas/" + creada.id())).body(creada);
+    public CompletableFuture<ResponseEntity<MatriculaResponseDto>> crear(@Valid @RequestBody MatriculaRequestDto request) {
+        return admisionMatriculaService.crear(request)
+                .thenApply(creada -> ResponseEntity.created(URI.create("/api/matriculas/" + creada.id())).body(creada));
+    }
+
+    @PostMapping("/batch")
+    // Hasta matricula.batch.max-filas (10000) filas en tramos de 1000: unas 50 sentencias por tramo, casi todas
+    // lotes JDBC de INSERT, así que crece con el tamaño del lote y no con un N+1.
+    @PresupuestoConsultas(600)
+    public ResponseEntity<MatriculaBatchResponseDto> crearLote(@RequestBody List<MatriculaRequestDto> requests) {
+        return ResponseEntity.ok(matriculaService.crearLote(requests));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(name = "periodo") String periodo,
+            @RequestParam(name = "format", defaultValue = "csv") String format,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+        return listadoResponses.<MatriculaResponseDto>exportar(
+                "matriculas-" + periodo, format, gzip, COLUMNAS_EXPORTACION,
+                m -> Arrays.asList(m.id(), m.estudianteId(), m.estudianteNombreCompleto(), m.seccionId(),
+                        m.seccionCodigo(), m.cursoCodigo(), m.fechaMatricula(), m.estado(), m.costo(),
+                        m.metodoPago(), m.fechaRegistro()),
+                consumer -> matriculaService.recorrerPorPeriodo(periodo, consumer));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<MatriculaResponseDto> actualizar(@PathVariable Long id,
-                                                           @Valid @RequestBody MatriculaRequestDto request) {
-        MatriculaResponseDto actualizada = matriculaService.actualizar(id, request);
-        return ResponseEntity.ok(actualizada);
+    public ResponseEntity<MatriculaResponseDto> actualizar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody MatriculaRequestDto request) {
+        MatriculaResponseDto actualizada = matriculaService.actualizar(id, request, Versiones.esperada(ifMatch));
+        return ResponseEntity.ok().eTag(Versiones.etag(actualizada.version())).body(actualizada);
     }
 
     @DeleteMapping("/{id}")
@@ -40,20 +79,35 @@ public class MatriculaController {
     }
 
     @GetMapping("/{id}")
+    @PresupuestoConsultas(1)
     public ResponseEntity<MatriculaResponseDto> obtenerPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(matriculaService.obtenerPorId(id));
+        MatriculaResponseDto matricula = matriculaService.obtenerPorId(id);
+        return ResponseEntity.ok().eTag(Versiones.etag(matricula.version())).body(matricula);
     }
 
     @GetMapping
+    @PresupuestoConsultas(1)
     public ResponseEntity<List<MatriculaResponseDto>> listar(
             @RequestParam(name = "estudianteId", required = false) Long estudianteId,
-            @RequestParam(name = "seccionId", required = false) Long seccionId) {
+            @RequestParam(name = "seccionId", required = false) Long seccionId,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "unpaged", defaultValue = "false") boolean unpaged) {
         if (estudianteId != null) {
             return ResponseEntity.ok(matriculaService.listarPorEstudiante(estudianteId));
         }
         if (seccionId != null) {
             return ResponseEntity.ok(matriculaService.listarPorSeccion(seccionId));
         }
-        return ResponseEntity.ok(matriculaService.listarTodos());
+        if (unpaged) {
+            return ResponseEntity.ok(matriculaService.listarTodos());
+        }
+        return listadoResponses.pagina(matriculaService.listarPagina(after, limit));
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> listarNdjson(
+            @RequestParam(name = "after", required = false) Long after) {
+        return listadoResponses.<MatriculaResponseDto>ndjson(consumer -> matriculaService.recorrerTodos(after, consumer));
     }
 }
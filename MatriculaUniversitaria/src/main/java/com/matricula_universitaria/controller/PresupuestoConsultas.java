@@ -0,0 +1,17 @@
+package com.matricula_universitaria.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL que puede ejecutar una petición a este endpoint en el hilo de la petición. Sin la
+ * anotación rige {@code matricula.consultas.presupuesto-por-defecto}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoConsultas {
+
+    int value();
+}
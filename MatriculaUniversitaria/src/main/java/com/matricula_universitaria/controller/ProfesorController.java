@@ -1,11 +1,16 @@
 package com.matricula_universitaria.controller;
 
+import com.matricula_universitaria.dto.BusquedaResponseDto;
 import com.matricula_universitaria.dto.ProfesorRequestDto;
 import com.matricula_universitaria.dto.ProfesorResponseDto;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
 import com.matricula_universitaria.service.ProfesorService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -15,9 +20,15 @@ import java.util.List;
 public class ProfesorController {
 
     private final ProfesorService profesorService;
+    private final ListadoResponses listadoResponses;
+    private final CatalogoCacheService catalogoCacheService;
 
-    public ProfesorController(ProfesorService profesorService) {
+    public ProfesorController(ProfesorService profesorService,
+                              ListadoResponses listadoResponses,
+                              CatalogoCacheService catalogoCacheService) {
         this.profesorService = profesorService;
+        this.listadoResponses = listadoResponses;
+        this.catalogoCacheService = catalogoCacheService;
     }
 
     @PostMapping
@@ -39,6 +50,13 @@ public class ProfesorController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<BusquedaResponseDto>> buscar(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(profesorService.buscar(q, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProfesorResponseDto> obtenerPorId(@PathVariable Long id) {
         return ResponseEntity.ok(profesorService.obtenerPorId(id));
@@ -46,10 +64,24 @@ public class ProfesorController {
 
     @GetMapping
     public ResponseEntity<List<ProfesorResponseDto>> listar(
-            @RequestParam(name = "apellido", required = false) String apellido) {
+            @RequestParam(name = "apellido", required = false) String apellido,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
         if (apellido != null && !apellido.isBlank()) {
             return ResponseEntity.ok(profesorService.buscarPorApellido(apellido));
         }
-        return ResponseEntity.ok(profesorService.listarTodos());
+        return listadoResponses.pagina(profesorService.listarPagina(after, limit));
+    }
+
+    @GetMapping(params = {"unpaged=true", "!apellido", "!format"})
+    public ResponseEntity<byte[]> listarTodos(WebRequest request) {
+        return listadoResponses.catalogo(request,
+                catalogoCacheService.obtener(Catalogo.PROFESORES, profesorService::listarTodos));
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> listarNdjson(
+            @RequestParam(name = "after", required = false) Long after) {
+        return listadoResponses.<ProfesorResponseDto>ndjson(consumer -> profesorService.recorrerTodos(after, consumer));
     }
 }
@@ -0,0 +1,28 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.ReporteMatriculasResponseDto;
+import com.matricula_universitaria.service.ReporteMatriculaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reportes")
+public class ReporteController {
+
+    private final ReporteMatriculaService reporteMatriculaService;
+
+    public ReporteController(ReporteMatriculaService reporteMatriculaService) {
+        this.reporteMatriculaService = reporteMatriculaService;
+    }
+
+    @GetMapping("/matriculas")
+    public ResponseEntity<ReporteMatriculasResponseDto> matriculas(
+            @RequestParam(name = "periodo", required = false) String periodo) {
+        return ResponseEntity.ok(reporteMatriculaService.obtener(periodo));
+    }
+
+    @PostMapping("/matriculas/recalcular")
+    public ResponseEntity<ReporteMatriculasResponseDto> recalcular() {
+        return ResponseEntity.ok(reporteMatriculaService.recalcular());
+    }
+}
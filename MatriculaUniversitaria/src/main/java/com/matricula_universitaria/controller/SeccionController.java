@@ -1,11 +1,17 @@
 package com.matricula_universitaria.controller;
 
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
 import com.matricula_universitaria.dto.SeccionRequestDto;
 import com.matricula_universitaria.dto.SeccionResponseDto;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
 import com.matricula_universitaria.service.SeccionService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -15,9 +21,15 @@ import java.util.List;
 public class SeccionController {
 
     private final SeccionService seccionService;
+    private final ListadoResponses listadoResponses;
+    private final CatalogoCacheService catalogoCacheService;
 
-    public SeccionController(SeccionService seccionService) {
+    public SeccionController(SeccionService seccionService,
+                             ListadoResponses listadoResponses,
+                             CatalogoCacheService catalogoCacheService) {
         this.seccionService = seccionService;
+        this.listadoResponses = listadoResponses;
+        this.catalogoCacheService = catalogoCacheService;
     }
 
     @PostMapping
@@ -27,10 +39,12 @@ public class SeccionController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<SeccionResponseDto> actualizar(@PathVariable Long id,
-                                                         @Valid @RequestBody SeccionRequestDto request) {
-        SeccionResponseDto actualizado = seccionService.actualizar(id, request);
-        return ResponseEntity.ok(actualizado);
+    public ResponseEntity<SeccionResponseDto> actualizar(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody SeccionRequestDto request) {
+        SeccionResponseDto actualizado = seccionService.actualizar(id, request, Versiones.esperada(ifMatch));
+        return ResponseEntity.ok().eTag(Versiones.etag(actualizado.version())).body(actualizado);
     }
 
     @DeleteMapping("/{id}")
@@ -40,20 +54,48 @@ public class SeccionController {
     }
 
     @GetMapping("/{id}")
+    @PresupuestoConsultas(1)
     public ResponseEntity<SeccionResponseDto> obtenerPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(seccionService.obtenerPorId(id));
+        SeccionResponseDto seccion = seccionService.obtenerPorId(id);
+        return ResponseEntity.ok().eTag(Versiones.etag(seccion.version())).body(seccion);
+    }
+
+    @GetMapping("/ocupacion")
+    public ResponseEntity<List<OcupacionSeccionResponseDto>> listarOcupaciones() {
+        return ResponseEntity.ok(seccionService.listarOcupaciones());
+    }
+
+    @GetMapping("/{id}/ocupacion")
+    public ResponseEntity<OcupacionSeccionResponseDto> obtenerOcupacion(@PathVariable Long id) {
+        return ResponseEntity.ok(seccionService.obtenerOcupacion(id));
     }
 
     @GetMapping
+    @PresupuestoConsultas(1)
     public ResponseEntity<List<SeccionResponseDto>> listar(
             @RequestParam(name = "cursoId", required = false) Long cursoId,
-            @RequestParam(name = "profesorId", required = false) Long profesorId) {
+            @RequestParam(name = "profesorId", required = false) Long profesorId,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
         if (cursoId != null) {
             return ResponseEntity.ok(seccionService.listarPorCurso(cursoId));
         }
         if (profesorId != null) {
             return ResponseEntity.ok(seccionService.listarPorProfesor(profesorId));
         }
-        return ResponseEntity.ok(seccionService.listarTodos());
+        return listadoResponses.pagina(seccionService.listarPagina(after, limit));
+    }
+
+    @GetMapping(params = {"unpaged=true", "!cursoId", "!profesorId", "!format"})
+    @PresupuestoConsultas(1)
+    public ResponseEntity<byte[]> listarTodos(WebRequest request) {
+        return listadoResponses.catalogo(request,
+                catalogoCacheService.obtener(Catalogo.SECCIONES, seccionService::listarTodos));
+    }
+
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> listarNdjson(
+            @RequestParam(name = "after", required = false) Long after) {
+        return listadoResponses.<SeccionResponseDto>ndjson(consumer -> seccionService.recorrerTodos(after, consumer));
     }
 }
@@ -0,0 +1,33 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.exceptions.BadRequestException;
+
+/** Traduce la columna {@code version} de una entidad a ETag y la cabecera {@code If-Match} a versión esperada. */
+final class Versiones {
+
+    private Versiones() {
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /** {@code null} si no hay precondición ({@code If-Match} ausente o {@code *}). */
+    static Long esperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            valor = valor.substring(1, valor.length() - 1);
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("If-Match debe ser una sola ETag devuelta por la API, p. ej. \"3\"");
+        }
+    }
+}
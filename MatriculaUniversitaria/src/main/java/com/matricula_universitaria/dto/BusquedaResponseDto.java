@@ -0,0 +1,10 @@
+package com.matricula_universitaria.dto;
+
+public record BusquedaResponseDto(
+        Long id,
+        String nombre,
+        String apellido,
+        String dni,
+        String email
+) {
+}
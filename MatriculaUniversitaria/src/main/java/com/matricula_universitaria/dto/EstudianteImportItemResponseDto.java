@@ -0,0 +1,8 @@
+package com.matricula_universitaria.dto;
+
+public record EstudianteImportItemResponseDto(
+        long linea,
+        String dni,
+        String mensaje
+) {
+}
@@ -0,0 +1,11 @@
+package com.matricula_universitaria.dto;
+
+import java.util.List;
+
+public record EstudianteImportResponseDto(
+        int total,
+        long importados,
+        int rechazados,
+        List<EstudianteImportItemResponseDto> rechazos
+) {
+}
@@ -0,0 +1,11 @@
+package com.matricula_universitaria.dto;
+
+import java.math.BigDecimal;
+
+public record IngresosPorMetodoPagoResponseDto(
+        String metodoPago,
+        String estado,
+        long matriculas,
+        BigDecimal costoTotal
+) {
+}
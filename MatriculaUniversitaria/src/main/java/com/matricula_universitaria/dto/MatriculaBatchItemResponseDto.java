@@ -0,0 +1,11 @@
+package com.matricula_universitaria.dto;
+
+public record MatriculaBatchItemResponseDto(
+        int indice,
+        Long estudianteId,
+        Long seccionId,
+        Long matriculaId,
+        boolean creada,
+        String mensaje
+) {
+}
@@ -0,0 +1,11 @@
+package com.matricula_universitaria.dto;
+
+import java.util.List;
+
+public record MatriculaBatchResponseDto(
+        int total,
+        int creadas,
+        int rechazadas,
+        List<MatriculaBatchItemResponseDto> resultados
+) {
+}
@@ -0,0 +1,10 @@
+package com.matricula_universitaria.dto;
+
+/** Cuerpo del evento {@code matricula.created}; coincide con {@code MatriculaNotificationDTO} de RabbitMQMatricula. */
+public record MatriculaNotificationDto(
+        Long estudianteId,
+        Long seccionId,
+        String estado,
+        String emailDestino
+) {
+}
@@ -15,6 +15,7 @@ public record MatriculaResponseDto(
         String estado,
         BigDecimal costo,
         String metodoPago,
-        LocalDateTime fechaRegistro
+        LocalDateTime fechaRegistro,
+        Long version
 ) {
 }
@@ -0,0 +1,9 @@
+package com.matricula_universitaria.dto;
+
+public record MatriculasPorCursoResponseDto(
+        Long cursoId,
+        String periodoAcademico,
+        long matriculados,
+        long anulados
+) {
+}
@@ -0,0 +1,14 @@
+package com.matricula_universitaria.dto;
+
+public record OcupacionSeccionResponseDto(
+        Long seccionId,
+        int inscritos,
+        int capacidadMaxima,
+        int vacantes
+) {
+
+    public static OcupacionSeccionResponseDto of(Long seccionId, int inscritos, int capacidadMaxima) {
+        return new OcupacionSeccionResponseDto(seccionId, inscritos, capacidadMaxima,
+                Math.max(capacidadMaxima - inscritos, 0));
+    }
+}
@@ -0,0 +1,9 @@
+package com.matricula_universitaria.dto;
+
+import java.util.List;
+
+public record PaginaCursorDto<T>(
+        List<T> elementos,
+        Long siguienteCursor
+) {
+}
@@ -0,0 +1,9 @@
+package com.matricula_universitaria.dto;
+
+import java.util.List;
+
+public record ReporteMatriculasResponseDto(
+        List<MatriculasPorCursoResponseDto> porCurso,
+        List<IngresosPorMetodoPagoResponseDto> porMetodoPago
+) {
+}
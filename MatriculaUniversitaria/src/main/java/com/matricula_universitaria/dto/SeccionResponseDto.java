@@ -19,6 +19,8 @@ public record SeccionResponseDto(
         LocalDate fechaInicio,
         LocalDate fechaFin,
         LocalDateTime fechaRegistro,
-        Boolean activo
+        Boolean activo,
+        OcupacionSeccionResponseDto ocupacion,
+        Long version
 ) {
 }
@@ -20,8 +20,13 @@ import java.time.LocalDateTime;
 @Builder
 public class Matricula {
 
+    public static final String ESTADO_ANULADO = "ANULADO";
+    /** Restricción única (estudiante_id, seccion_id) de schema.sql. */
+    public static final String UK_ESTUDIANTE_SECCION = "uk_matricula";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matricula_seq")
+    @SequenceGenerator(name = "matricula_seq", sequenceName = "matricula_matricula_id_seq", allocationSize = 50)
     @Column(name = "matricula_id")
     private Long id;
 
@@ -48,6 +53,14 @@ public class Matricula {
     @Column(name = "fecha_registro", nullable = false, updatable = false)
     private LocalDateTime fechaRegistro;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public boolean ocupaVacante() {
+        return !ESTADO_ANULADO.equals(estado);
+    }
+
     @PrePersist
     void prePersist() {
         if (fechaMatricula == null) {
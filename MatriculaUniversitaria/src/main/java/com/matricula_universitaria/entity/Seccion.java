@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "seccion")
 @Table(
         name = "seccion",
         uniqueConstraints = {
@@ -69,6 +73,10 @@ public class Seccion {
     @Column(name = "activo", nullable = false)
     private Boolean activo = Boolean.TRUE;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "seccion", cascade = CascadeType.ALL, orphanRemoval = false)
     private List<Matricula> matriculas = new ArrayList<>();
 
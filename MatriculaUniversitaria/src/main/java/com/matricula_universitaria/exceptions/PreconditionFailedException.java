@@ -0,0 +1,10 @@
+package com.matricula_universitaria.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends CustomException {
+
+    public PreconditionFailedException(String message) {
+        super(message, HttpStatus.PRECONDITION_FAILED);
+    }
+}
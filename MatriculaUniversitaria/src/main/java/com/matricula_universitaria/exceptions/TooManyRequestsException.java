@@ -0,0 +1,17 @@
+package com.matricula_universitaria.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends CustomException {
+
+    private final long retryAfterSegundos;
+
+    public TooManyRequestsException(String message, long retryAfterSegundos) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
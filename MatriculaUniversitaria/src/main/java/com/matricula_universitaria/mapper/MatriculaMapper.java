@@ -58,7 +58,8 @@ public class MatriculaMapper {
                 entity.getEstado(),
                 entity.getCosto(),
                 entity.getMetodoPago(),
-                entity.getFechaRegistro()
+                entity.getFechaRegistro(),
+                entity.getVersion()
         );
     }
 
@@ -1,10 +1,12 @@
 package com.matricula_universitaria.mapper;
 
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
 import com.matricula_universitaria.dto.SeccionRequestDto;
 import com.matricula_universitaria.dto.SeccionResponseDto;
 import com.matricula_universitaria.entity.Curso;
 import com.matricula_universitaria.entity.Profesor;
 import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.service.OcupacionService;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -12,6 +14,12 @@ import java.util.List;
 @Component
 public class SeccionMapper {
 
+    private final OcupacionService ocupacionService;
+
+    public SeccionMapper(OcupacionService ocupacionService) {
+        this.ocupacionService = ocupacionService;
+    }
+
     public Seccion toEntity(SeccionRequestDto dto, Curso curso, Profesor profesor) {
         if (dto == null) return null;
         Seccion entity = new Seccion();
@@ -47,6 +55,10 @@ public class SeccionMapper {
 
     public SeccionResponseDto toResponse(Seccion entity) {
         if (entity == null) return null;
+        return toResponse(entity, ocupacionService.buscar(entity.getId()).orElse(null));
+    }
+
+    private SeccionResponseDto toResponse(Seccion entity, OcupacionSeccionResponseDto ocupacion) {
         Long cursoId = entity.getCurso() != null ? entity.getCurso().getId() : null;
         String cursoCodigo = entity.getCurso() != null ? entity.getCurso().getCodigo() : null;
         String cursoNombre = entity.getCurso() != null ? entity.getCurso().getNombre() : null;
@@ -71,11 +83,18 @@ public class SeccionMapper {
                 entity.getFechaInicio(),
                 entity.getFechaFin(),
                 entity.getFechaRegistro(),
-                entity.getActivo()
+                entity.getActivo(),
+                ocupacion,
+                entity.getVersion()
         );
     }
 
     public List<SeccionResponseDto> toResponseList(List<Seccion> entities) {
         return entities.stream().map(this::toResponse).toList();
     }
+
+    /** Sin {@code ocupacion}: el listado de catálogo se guarda en caché y los inscritos cambian con cada matrícula. */
+    public List<SeccionResponseDto> toCatalogoList(List<Seccion> entities) {
+        return entities.stream().map(entity -> toResponse(entity, null)).toList();
+    }
 }
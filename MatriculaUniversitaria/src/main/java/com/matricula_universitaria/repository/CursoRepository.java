@@ -1,11 +1,22 @@
 package com.matricula_universitaria.repository;
 
 import com.matricula_universitaria.entity.Curso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CursoRepository extends JpaRepository<Curso, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Curso> findAll();
+
+    List<Curso> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Optional<Curso> findByCodigo(String codigo);
 }
@@ -0,0 +1,121 @@
+package com.matricula_universitaria.repository;
+
+import com.matricula_universitaria.entity.Estudiante;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Carga masiva de estudiantes con {@code COPY ... FROM STDIN} sobre la conexión de la transacción en curso.
+ */
+@Repository
+public class EstudianteCopyRepository {
+
+    private static final String COPY_SQL = "COPY estudiante " +
+            "(nombre, apellido, dni, email, telefono, fecha_nacimiento, direccion, activo) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    private static final int BUFFER = 64 * 1024;
+
+    private final DataSource dataSource;
+
+    public EstudianteCopyRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Impide altas concurrentes hasta el fin de la transacción, para que los DNI y emails precargados sigan siendo válidos.
+     */
+    public void bloquearAltas() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LOCK TABLE estudiante IN SHARE ROW EXCLUSIVE MODE");
+        } catch (SQLException ex) {
+            throw new IllegalStateException("No se pudo bloquear la tabla estudiante", ex);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    public Carga abrirCarga() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return new Carga(connection, new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_SQL, BUFFER));
+        } catch (SQLException ex) {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            throw new IllegalStateException("No se pudo iniciar COPY sobre estudiante", ex);
+        }
+    }
+
+    public final class Carga implements AutoCloseable {
+
+        private final Connection connection;
+        private final PGCopyOutputStream copia;
+        private final Writer writer;
+
+        private Carga(Connection connection, PGCopyOutputStream copia) {
+            this.connection = connection;
+            this.copia = copia;
+            this.writer = new OutputStreamWriter(copia, StandardCharsets.UTF_8);
+        }
+
+        public void agregar(Estudiante estudiante) {
+            try {
+                escribir(estudiante.getNombre(), ',');
+                escribir(estudiante.getApellido(), ',');
+                escribir(estudiante.getDni(), ',');
+                escribir(estudiante.getEmail(), ',');
+                escribir(estudiante.getTelefono(), ',');
+                escribir(estudiante.getFechaNacimiento(), ',');
+                escribir(estudiante.getDireccion(), ',');
+                escribir(estudiante.getActivo(), '\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        public long terminar() {
+            try {
+                writer.flush();
+                return copia.endCopy();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Falló COPY sobre estudiante", ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (copia.isActive()) {
+                    copia.cancelCopy();
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException("No se pudo cancelar COPY sobre estudiante", ex);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+
+        private void escribir(Object valor, char separador) throws IOException {
+            // En COPY csv un campo vacío sin comillas es NULL; cualquier valor va entre comillas.
+            if (valor != null) {
+                writer.write('"');
+                writer.write(valor.toString().replace("\"", "\"\""));
+                writer.write('"');
+            }
+            writer.write(separador);
+        }
+    }
+}
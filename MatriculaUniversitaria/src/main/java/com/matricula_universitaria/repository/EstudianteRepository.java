@@ -1,16 +1,38 @@
 package com.matricula_universitaria.repository;
 
 import com.matricula_universitaria.entity.Estudiante;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
 
+    List<Estudiante> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Optional<Estudiante> findByDni(String dni);
 
     Optional<Estudiante> findByEmail(String email);
 
     List<Estudiante> findByApellidoContainingIgnoreCase(String apellido);
+
+    /** Como {@link #bloquearEmailsByIdIn} para un solo estudiante. */
+    @Query(value = "SELECT * FROM estudiante WHERE estudiante_id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Estudiante> findBloqueadoById(@Param("id") Long id);
+
+    /**
+     * Bloquea a los estudiantes (en orden de id, para no provocar interbloqueos) hasta el fin de la transacción.
+     * Quien matricula a un estudiante toma antes este bloqueo, así que las comprobaciones de duplicados y de
+     * cruces de horario que siguen ya no compiten con otra matrícula del mismo estudiante.
+     */
+    @Query(value = "SELECT CAST(estudiante_id AS BIGINT), email FROM estudiante WHERE estudiante_id IN (:ids) " +
+            "ORDER BY estudiante_id FOR NO KEY UPDATE", nativeQuery = true)
+    List<Object[]> bloquearEmailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.dni, e.email FROM Estudiante e")
+    List<Object[]> findDnisYEmails();
 }
@@ -0,0 +1,16 @@
+package com.matricula_universitaria.repository;
+
+import com.matricula_universitaria.entity.EventoOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /** Bloquea los eventos más antiguos; SKIP LOCKED deja que varias instancias drenen la tabla sin esperarse. */
+    @Query(value = "SELECT * FROM evento_outbox ORDER BY evento_id LIMIT :limite FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<EventoOutbox> findLoteParaPublicar(@Param("limite") int limite);
+}
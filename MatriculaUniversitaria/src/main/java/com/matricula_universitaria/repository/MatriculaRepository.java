@@ -1,16 +1,48 @@
 package com.matricula_universitaria.repository;
 
 import com.matricula_universitaria.entity.Matricula;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"estudiante", "seccion", "seccion.curso"})
+    List<Matricula> findAll();
+
+    @EntityGraph(attributePaths = {"estudiante", "seccion", "seccion.curso"})
+    Optional<Matricula> findDetalladaById(Long id);
+
+    @EntityGraph(attributePaths = {"estudiante", "seccion", "seccion.curso"})
+    List<Matricula> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Optional<Matricula> findByEstudianteIdAndSeccionId(Long estudianteId, Long seccionId);
 
+    @EntityGraph(attributePaths = {"estudiante", "seccion", "seccion.curso"})
     List<Matricula> findByEstudianteId(Long estudianteId);
 
+    @EntityGraph(attributePaths = {"estudiante", "seccion", "seccion.curso"})
     List<Matricula> findBySeccionId(Long seccionId);
+
+    @Query("SELECT m.estudiante.id, m.seccion.id FROM Matricula m " +
+            "WHERE m.estudiante.id IN :estudianteIds AND m.seccion.id IN :seccionIds")
+    List<Object[]> findParesByEstudianteIdInAndSeccionIdIn(@Param("estudianteIds") Collection<Long> estudianteIds,
+                                                           @Param("seccionIds") Collection<Long> seccionIds);
+
+    @Query("SELECT m.estudiante.id, s.id, s.codigo, s.periodoAcademico, s.horario, s.dias " +
+            "FROM Matricula m JOIN m.seccion s " +
+            "WHERE m.estudiante.id IN :estudianteIds AND m.estado <> 'ANULADO'")
+    List<Object[]> findHorariosActivosByEstudianteIdIn(@Param("estudianteIds") Collection<Long> estudianteIds);
+
+    @Query("SELECT s.curso.id, s.periodoAcademico, m.estado, m.metodoPago, COUNT(m), COALESCE(SUM(m.costo), 0) " +
+            "FROM Matricula m JOIN m.seccion s " +
+            "GROUP BY s.curso.id, s.periodoAcademico, m.estado, m.metodoPago")
+    List<Object[]> findResumen();
 }
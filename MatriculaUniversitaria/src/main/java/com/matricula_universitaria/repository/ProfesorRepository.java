@@ -1,13 +1,23 @@
 package com.matricula_universitaria.repository;
 
 import com.matricula_universitaria.entity.Profesor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ProfesorRepository extends JpaRepository<Profesor, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Profesor> findAll();
+
+    List<Profesor> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
     Optional<Profesor> findByDni(String dni);
 
     Optional<Profesor> findByEmail(String email);
@@ -0,0 +1,92 @@
+package com.matricula_universitaria.repository;
+
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.entity.Curso;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.entity.Profesor;
+import com.matricula_universitaria.entity.Seccion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Recorridos de tablas completas con un cursor forward-only sobre una {@link StatelessSession}:
+ * sin contexto de persistencia, la memoria no crece con el número de filas.
+ */
+@Repository
+public class ScrollRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final SessionFactory sessionFactory;
+
+    public ScrollRepository(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void recorrerMatriculas(long after, Consumer<Matricula> consumer) {
+        recorrer("FROM Matricula m JOIN FETCH m.estudiante JOIN FETCH m.seccion s JOIN FETCH s.curso " +
+                "WHERE m.id > :after ORDER BY m.id", Matricula.class, after, consumer);
+    }
+
+    public void recorrerMatriculasPorPeriodo(String periodoAcademico, Consumer<MatriculaResponseDto> consumer) {
+        recorrer("SELECT new com.matricula_universitaria.dto.MatriculaResponseDto(" +
+                        "m.id, e.id, concat(e.nombre, ' ', e.apellido), s.id, s.codigo, c.codigo, " +
+                        "m.fechaMatricula, m.estado, m.costo, m.metodoPago, m.fechaRegistro, m.version) " +
+                        "FROM Matricula m JOIN m.estudiante e JOIN m.seccion s JOIN s.curso c " +
+                        "WHERE s.periodoAcademico = :periodo ORDER BY m.id",
+                MatriculaResponseDto.class, Map.of("periodo", periodoAcademico), consumer);
+    }
+
+    public void recorrerEstudiantes(long after, Consumer<Estudiante> consumer) {
+        recorrer("FROM Estudiante e WHERE e.id > :after ORDER BY e.id", Estudiante.class, after, consumer);
+    }
+
+    public void recorrerSecciones(long after, Consumer<Seccion> consumer) {
+        recorrer("FROM Seccion s JOIN FETCH s.curso JOIN FETCH s.profesor " +
+                "WHERE s.id > :after ORDER BY s.id", Seccion.class, after, consumer);
+    }
+
+    public void recorrerCursos(long after, Consumer<Curso> consumer) {
+        recorrer("FROM Curso c WHERE c.id > :after ORDER BY c.id", Curso.class, after, consumer);
+    }
+
+    public void recorrerProfesores(long after, Consumer<Profesor> consumer) {
+        recorrer("FROM Profesor p WHERE p.id > :after ORDER BY p.id", Profesor.class, after, consumer);
+    }
+
+    private <T> void recorrer(String hql, Class<T> type, long after, Consumer<T> consumer) {
+        recorrer(hql, type, Map.of("after", after), consumer);
+    }
+
+    private <T> void recorrer(String hql, Class<T> type, Map<String, ?> parametros, Consumer<T> consumer) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // pgjdbc solo usa un cursor de servidor con autocommit desactivado
+            Transaction tx = session.beginTransaction();
+            try {
+                SelectionQuery<T> query = session.createSelectionQuery(hql, type)
+                        .setFetchSize(FETCH_SIZE)
+                        .setReadOnly(true);
+                parametros.forEach(query::setParameter);
+                try (ScrollableResults<T> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        consumer.accept(results.get());
+                    }
+                }
+                tx.commit();
+            } catch (RuntimeException ex) {
+                tx.rollback();
+                throw ex;
+            }
+        }
+    }
+}
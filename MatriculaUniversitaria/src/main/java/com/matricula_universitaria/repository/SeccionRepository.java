@@ -1,13 +1,73 @@
 package com.matricula_universitaria.repository;
 
 import com.matricula_universitaria.entity.Seccion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface SeccionRepository extends JpaRepository<Seccion, Long> {
 
+    // seccion.inscritos no está mapeado en la entidad: declarar este espacio evita que los UPDATE
+    // del contador vacíen la región "seccion" de la caché de segundo nivel en cada matrícula.
+    String ESPACIO_INSCRITOS = "seccion_inscritos";
+
+    @Override
+    @EntityGraph(attributePaths = {"curso", "profesor"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Seccion> findAll();
+
+    @EntityGraph(attributePaths = {"curso", "profesor"})
+    Optional<Seccion> findDetalladaById(Long id);
+
+    @EntityGraph(attributePaths = {"curso", "profesor"})
+    List<Seccion> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"curso", "profesor"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Seccion> findByCursoId(Long cursoId);
 
+    @EntityGraph(attributePaths = {"curso", "profesor"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Seccion> findByProfesorId(Long profesorId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESPACIO_INSCRITOS))
+    @Query(value = "UPDATE seccion SET inscritos = inscritos + :cantidad " +
+            "WHERE seccion_id = :id AND inscritos + :cantidad <= capacidad_maxima", nativeQuery = true)
+    int reservarVacantes(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESPACIO_INSCRITOS))
+    @Query(value = "UPDATE seccion SET inscritos = inscritos - 1 " +
+            "WHERE seccion_id = :id AND inscritos > 0", nativeQuery = true)
+    int liberarVacante(@Param("id") Long id);
+
+    // Compara con inscritos bajo el bloqueo de la fila: una reserva concurrente espera o ya cuenta. La entidad se
+    // escribe después con la misma capacidad, así que basta el espacio del contador.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESPACIO_INSCRITOS))
+    @Query(value = "UPDATE seccion SET capacidad_maxima = :capacidad " +
+            "WHERE seccion_id = :id AND inscritos <= :capacidad", nativeQuery = true)
+    int cambiarCapacidad(@Param("id") Long id, @Param("capacidad") int capacidad);
+
+    @Query(value = "SELECT inscritos FROM seccion WHERE seccion_id = :id", nativeQuery = true)
+    Integer contarInscritos(@Param("id") Long id);
+
+    @Query(value = "SELECT capacidad_maxima - inscritos FROM seccion WHERE seccion_id = :id", nativeQuery = true)
+    Integer contarVacantesDisponibles(@Param("id") Long id);
+
+    // Carga el índice de ocupación: sin readOnly para leer del primario y no de una réplica atrasada.
+    @Transactional
+    @Query(value = "SELECT seccion_id, inscritos, capacidad_maxima FROM seccion", nativeQuery = true)
+    List<Object[]> findOcupaciones();
 }
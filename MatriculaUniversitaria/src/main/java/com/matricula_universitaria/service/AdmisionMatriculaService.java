@@ -0,0 +1,11 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AdmisionMatriculaService {
+
+    CompletableFuture<MatriculaResponseDto> crear(MatriculaRequestDto request);
+}
@@ -0,0 +1,26 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.dto.BusquedaResponseDto;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Profesor;
+
+import java.util.List;
+
+public interface BusquedaService {
+
+    List<BusquedaResponseDto> buscarEstudiantes(String q, Integer limit);
+
+    List<BusquedaResponseDto> buscarProfesores(String q, Integer limit);
+
+    void indexarEstudiante(Estudiante estudiante);
+
+    void eliminarEstudiante(Long id);
+
+    void indexarProfesor(Profesor profesor);
+
+    void eliminarProfesor(Long id);
+
+    void recargarEstudiantes();
+
+    void recargar();
+}
@@ -0,0 +1,21 @@
+package com.matricula_universitaria.service;
+
+import java.util.function.Supplier;
+
+public interface CatalogoCacheService {
+
+    enum Catalogo {
+        CURSOS, SECCIONES, PROFESORES
+    }
+
+    /**
+     * Listado completo ya serializado a JSON (y comprimido con gzip) junto con la etiqueta de su versión,
+     * que se usa como ETag.
+     */
+    record CatalogoSerializado(String etag, byte[] json, byte[] gzip) {
+    }
+
+    CatalogoSerializado obtener(Catalogo catalogo, Supplier<?> cargar);
+
+    void invalidar(Catalogo... catalogos);
+}
@@ -2,8 +2,10 @@ package com.matricula_universitaria.service;
 
 import com.matricula_universitaria.dto.CursoRequestDto;
 import com.matricula_universitaria.dto.CursoResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CursoService {
 
@@ -16,4 +18,8 @@ public interface CursoService {
     CursoResponseDto obtenerPorId(Long id);
 
     List<CursoResponseDto> listarTodos();
+
+    PaginaCursorDto<CursoResponseDto> listarPagina(Long after, Integer limit);
+
+    void recorrerTodos(Long after, Consumer<CursoResponseDto> consumer);
 }
@@ -1,14 +1,21 @@
 package com.matricula_universitaria.service;
 
+import com.matricula_universitaria.dto.BusquedaResponseDto;
+import com.matricula_universitaria.dto.EstudianteImportResponseDto;
 import com.matricula_universitaria.dto.EstudianteRequestDto;
 import com.matricula_universitaria.dto.EstudianteResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EstudianteService {
 
     EstudianteResponseDto crear(EstudianteRequestDto request);
 
+    EstudianteImportResponseDto importar(InputStream csv);
+
     EstudianteResponseDto actualizar(Long id, EstudianteRequestDto request);
 
     void eliminar(Long id);
@@ -17,5 +24,11 @@ public interface EstudianteService {
 
     List<EstudianteResponseDto> listarTodos();
 
+    PaginaCursorDto<EstudianteResponseDto> listarPagina(Long after, Integer limit);
+
+    void recorrerTodos(Long after, Consumer<EstudianteResponseDto> consumer);
+
     List<EstudianteResponseDto> buscarPorApellido(String apellido);
+
+    List<BusquedaResponseDto> buscar(String q, Integer limit);
 }
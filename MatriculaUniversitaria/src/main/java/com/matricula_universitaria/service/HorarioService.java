@@ -0,0 +1,21 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.entity.Seccion;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface HorarioService {
+
+    Optional<String> buscarCruce(Long estudianteId, Seccion seccion, Long seccionExcluidaId);
+
+    boolean seCruzan(Seccion seccion, Seccion otra);
+
+    void precargar(Collection<Long> estudianteIds);
+
+    void registrarMatricula(Long estudianteId, Seccion seccion);
+
+    void liberarMatricula(Long estudianteId, Long seccionId);
+
+    void invalidarSeccion(Long seccionId);
+}
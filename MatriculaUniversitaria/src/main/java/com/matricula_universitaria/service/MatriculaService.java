@@ -1,15 +1,20 @@
 package com.matricula_universitaria.service;
 
+import com.matricula_universitaria.dto.MatriculaBatchResponseDto;
 import com.matricula_universitaria.dto.MatriculaRequestDto;
 import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MatriculaService {
 
     MatriculaResponseDto crear(MatriculaRequestDto request);
 
-    MatriculaResponseDto actualizar(Long id, MatriculaRequestDto request);
+    MatriculaBatchResponseDto crearLote(List<MatriculaRequestDto> requests);
+
+    MatriculaResponseDto actualizar(Long id, MatriculaRequestDto request, Long versionEsperada);
 
     void eliminar(Long id);
 
@@ -17,6 +22,12 @@ public interface MatriculaService {
 
     List<MatriculaResponseDto> listarTodos();
 
+    PaginaCursorDto<MatriculaResponseDto> listarPagina(Long after, Integer limit);
+
+    void recorrerTodos(Long after, Consumer<MatriculaResponseDto> consumer);
+
+    void recorrerPorPeriodo(String periodoAcademico, Consumer<MatriculaResponseDto> consumer);
+
     List<MatriculaResponseDto> listarPorEstudiante(Long estudianteId);
 
     List<MatriculaResponseDto> listarPorSeccion(Long seccionId);
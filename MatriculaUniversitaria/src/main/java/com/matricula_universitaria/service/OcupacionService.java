@@ -0,0 +1,21 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OcupacionService {
+
+    Optional<OcupacionSeccionResponseDto> buscar(Long seccionId);
+
+    List<OcupacionSeccionResponseDto> listar();
+
+    void ajustarInscritos(Long seccionId, int delta);
+
+    void registrarSeccion(Long seccionId, int capacidadMaxima);
+
+    void eliminarSeccion(Long seccionId);
+
+    void recargar();
+}
@@ -0,0 +1,10 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.entity.Matricula;
+
+public interface OutboxService {
+
+    void registrarMatriculaCreada(Matricula matricula, String emailDestino);
+
+    int publicarPendientes();
+}
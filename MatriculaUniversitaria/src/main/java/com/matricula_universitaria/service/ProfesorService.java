@@ -1,9 +1,12 @@
 package com.matricula_universitaria.service;
 
+import com.matricula_universitaria.dto.BusquedaResponseDto;
 import com.matricula_universitaria.dto.ProfesorRequestDto;
 import com.matricula_universitaria.dto.ProfesorResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProfesorService {
 
@@ -17,5 +20,11 @@ public interface ProfesorService {
 
     List<ProfesorResponseDto> listarTodos();
 
+    PaginaCursorDto<ProfesorResponseDto> listarPagina(Long after, Integer limit);
+
+    void recorrerTodos(Long after, Consumer<ProfesorResponseDto> consumer);
+
     List<ProfesorResponseDto> buscarPorApellido(String apellido);
+
+    List<BusquedaResponseDto> buscar(String q, Integer limit);
 }
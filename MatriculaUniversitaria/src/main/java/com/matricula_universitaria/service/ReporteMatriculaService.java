@@ -0,0 +1,17 @@
+package com.matricula_universitaria.service;
+
+import com.matricula_universitaria.dto.ReporteMatriculasResponseDto;
+import com.matricula_universitaria.entity.Matricula;
+
+public interface ReporteMatriculaService {
+
+    ReporteMatriculasResponseDto obtener(String periodoAcademico);
+
+    void sumar(Matricula matricula);
+
+    void restar(Matricula matricula);
+
+    void recalcularAlConfirmar();
+
+    ReporteMatriculasResponseDto recalcular();
+}
@@ -2,21 +2,32 @@ package com.matricula_universitaria.service;
 
 import com.matricula_universitaria.dto.SeccionRequestDto;
 import com.matricula_universitaria.dto.SeccionResponseDto;
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SeccionService {
 
     SeccionResponseDto crear(SeccionRequestDto request);
 
-    SeccionResponseDto actualizar(Long id, SeccionRequestDto request);
+    SeccionResponseDto actualizar(Long id, SeccionRequestDto request, Long versionEsperada);
 
     void eliminar(Long id);
 
     SeccionResponseDto obtenerPorId(Long id);
 
+    OcupacionSeccionResponseDto obtenerOcupacion(Long id);
+
+    List<OcupacionSeccionResponseDto> listarOcupaciones();
+
     List<SeccionResponseDto> listarTodos();
 
+    PaginaCursorDto<SeccionResponseDto> listarPagina(Long after, Integer limit);
+
+    void recorrerTodos(Long after, Consumer<SeccionResponseDto> consumer);
+
     List<SeccionResponseDto> listarPorCurso(Long cursoId);
 
     List<SeccionResponseDto> listarPorProfesor(Long profesorId);
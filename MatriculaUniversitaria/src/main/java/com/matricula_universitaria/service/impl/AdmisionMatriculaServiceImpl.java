@@ -0,0 +1,189 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.config.ContadorConsultas;
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.exceptions.TooManyRequestsException;
+import com.matricula_universitaria.service.AdmisionMatriculaService;
+import com.matricula_universitaria.service.MatriculaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Control de admisión delante de {@link MatriculaService#crear}. Las solicitudes esperan en una cola
+ * acotada con una subcola FIFO por sección que se atiende por turnos, de modo que una sección muy
+ * demandada no acapara los permisos. Como mucho {@code matricula.admision.concurrencia} matrículas se
+ * ejecutan a la vez, cada una en un hilo virtual; si la cola está llena se responde 429. Las sentencias SQL del
+ * hilo virtual se suman al conteo de la petición ({@link ContadorConsultas}).
+ */
+@Service
+public class AdmisionMatriculaServiceImpl implements AdmisionMatriculaService {
+
+    private final MatriculaService matriculaService;
+    private final ContadorConsultas contadorConsultas;
+    private final int concurrencia;
+    private final int capacidadCola;
+    private final long esperaMaximaNanos;
+    private final Semaphore permisos;
+    private final ExecutorService ejecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("admision-matricula-", 0).factory());
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, ArrayDeque<Solicitud>> colas = new HashMap<>();
+    private final ArrayDeque<Long> turnos = new ArrayDeque<>();
+    private final AtomicInteger pendientes = new AtomicInteger();
+
+    private final Timer espera;
+    private final Timer ejecucion;
+    private final Counter rechazadas;
+
+    public AdmisionMatriculaServiceImpl(MatriculaService matriculaService,
+                                        ContadorConsultas contadorConsultas,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${matricula.admision.concurrencia:8}") int concurrencia,
+                                        @Value("${matricula.admision.capacidad-cola:2000}") int capacidadCola,
+                                        @Value("${matricula.admision.espera-maxima-ms:10000}") long esperaMaximaMs) {
+        this.matriculaService = matriculaService;
+        this.contadorConsultas = contadorConsultas;
+        this.concurrencia = concurrencia;
+        this.capacidadCola = capacidadCola;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.permisos = new Semaphore(concurrencia);
+
+        Gauge.builder("matricula.admision.cola", pendientes, AtomicInteger::get)
+                .description("Solicitudes de matrícula en espera")
+                .register(meterRegistry);
+        Gauge.builder("matricula.admision.en.curso", permisos, p -> concurrencia - p.availablePermits())
+                .description("Solicitudes de matrícula en ejecución")
+                .register(meterRegistry);
+        this.espera = Timer.builder("matricula.admision.espera")
+                .description("Tiempo en cola antes de ejecutar la matrícula")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.ejecucion = Timer.builder("matricula.admision.ejecucion")
+                .description("Tiempo de ejecución de la matrícula")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("matricula.admision.rechazadas")
+                .description("Solicitudes rechazadas con 429")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<MatriculaResponseDto> crear(MatriculaRequestDto request) {
+        Solicitud solicitud = new Solicitud(request, System.nanoTime(), contadorConsultas.actual(),
+                new CompletableFuture<>());
+        Long seccionId = request.seccionId();
+        lock.lock();
+        try {
+            if (pendientes.get() >= capacidadCola) {
+                throw rechazar();
+            }
+            ArrayDeque<Solicitud> cola = colas.computeIfAbsent(seccionId, id -> new ArrayDeque<>());
+            if (cola.isEmpty()) {
+                turnos.addLast(seccionId);
+            }
+            cola.addLast(solicitud);
+            pendientes.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        despachar();
+        return solicitud.resultado();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdown();
+    }
+
+    private void despachar() {
+        while (permisos.tryAcquire()) {
+            Solicitud siguiente = siguiente();
+            if (siguiente != null) {
+                ejecutor.execute(() -> ejecutar(siguiente));
+                continue;
+            }
+            permisos.release();
+            // Otra solicitud pudo encolarse entre siguiente() y release() sin conseguir permiso.
+            if (pendientes.get() == 0) {
+                return;
+            }
+        }
+    }
+
+    private Solicitud siguiente() {
+        lock.lock();
+        try {
+            Long seccionId = turnos.pollFirst();
+            if (seccionId == null) {
+                return null;
+            }
+            ArrayDeque<Solicitud> cola = colas.get(seccionId);
+            Solicitud solicitud = cola.pollFirst();
+            if (cola.isEmpty()) {
+                colas.remove(seccionId);
+            } else {
+                turnos.addLast(seccionId);
+            }
+            pendientes.decrementAndGet();
+            return solicitud;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ejecutar(Solicitud solicitud) {
+        contadorConsultas.continuar(solicitud.sentencias());
+        try {
+            long esperado = System.nanoTime() - solicitud.encolada();
+            espera.record(esperado, TimeUnit.NANOSECONDS);
+            if (esperado > esperaMaximaNanos) {
+                solicitud.resultado().completeExceptionally(rechazar());
+                return;
+            }
+            long inicio = System.nanoTime();
+            try {
+                solicitud.resultado().complete(matriculaService.crear(solicitud.request()));
+            } catch (RuntimeException ex) {
+                solicitud.resultado().completeExceptionally(ex);
+            } finally {
+                ejecucion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            contadorConsultas.terminar();
+            permisos.release();
+            despachar();
+        }
+    }
+
+    private TooManyRequestsException rechazar() {
+        rechazadas.increment();
+        double segundos = pendientes.get() * ejecucion.mean(TimeUnit.SECONDS) / concurrencia;
+        return new TooManyRequestsException(
+                "Demasiadas solicitudes de matrícula en espera, intente nuevamente",
+                Math.max(1, (long) Math.ceil(segundos)));
+    }
+
+    private record Solicitud(MatriculaRequestDto request,
+                             long encolada,
+                             AtomicInteger sentencias,
+                             CompletableFuture<MatriculaResponseDto> resultado) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.dto.BusquedaResponseDto;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Profesor;
+import com.matricula_universitaria.repository.ScrollRepository;
+import com.matricula_universitaria.service.BusquedaService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Búsqueda de estudiantes y profesores por nombre, apellido, DNI o email sobre índices de trigramas en memoria.
+ * Los servicios de escritura actualizan el índice al confirmar; además se reconstruye periódicamente desde la base.
+ */
+@Service
+public class BusquedaServiceImpl implements BusquedaService {
+
+    private static final int LIMITE_POR_DEFECTO = 20;
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final ScrollRepository scrollRepository;
+    private final IndiceReconstruible estudiantes = new IndiceReconstruible();
+    private final IndiceReconstruible profesores = new IndiceReconstruible();
+
+    public BusquedaServiceImpl(ScrollRepository scrollRepository) {
+        this.scrollRepository = scrollRepository;
+    }
+
+    @Override
+    public List<BusquedaResponseDto> buscarEstudiantes(String q, Integer limit) {
+        return estudiantes.actual.buscar(q != null ? q : "", limite(limit));
+    }
+
+    @Override
+    public List<BusquedaResponseDto> buscarProfesores(String q, Integer limit) {
+        return profesores.actual.buscar(q != null ? q : "", limite(limit));
+    }
+
+    @Override
+    public void indexarEstudiante(Estudiante estudiante) {
+        BusquedaResponseDto documento = documento(estudiante);
+        Transacciones.alConfirmar(() -> estudiantes.aplicar(indice -> indexar(indice, documento)));
+    }
+
+    @Override
+    public void eliminarEstudiante(Long id) {
+        Transacciones.alConfirmar(() -> estudiantes.aplicar(indice -> indice.eliminar(id)));
+    }
+
+    @Override
+    public void indexarProfesor(Profesor profesor) {
+        BusquedaResponseDto documento = documento(profesor);
+        Transacciones.alConfirmar(() -> profesores.aplicar(indice -> indexar(indice, documento)));
+    }
+
+    @Override
+    public void eliminarProfesor(Long id) {
+        Transacciones.alConfirmar(() -> profesores.aplicar(indice -> indice.eliminar(id)));
+    }
+
+    @Override
+    public void recargarEstudiantes() {
+        estudiantes.reconstruir(nuevo -> scrollRepository.recorrerEstudiantes(0, e -> indexar(nuevo, documento(e))));
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${matricula.busqueda.resync-ms:900000}",
+            initialDelayString = "${matricula.busqueda.resync-ms:900000}")
+    @Override
+    public void recargar() {
+        recargarEstudiantes();
+        profesores.reconstruir(nuevo -> scrollRepository.recorrerProfesores(0, p -> indexar(nuevo, documento(p))));
+    }
+
+    private static void indexar(IndiceTrigramas<BusquedaResponseDto> indice, BusquedaResponseDto documento) {
+        indice.indexar(documento.id(), documento,
+                documento.nombre(), documento.apellido(), documento.dni(), documento.email());
+    }
+
+    private static BusquedaResponseDto documento(Estudiante e) {
+        return new BusquedaResponseDto(e.getId(), e.getNombre(), e.getApellido(), e.getDni(), e.getEmail());
+    }
+
+    private static BusquedaResponseDto documento(Profesor p) {
+        return new BusquedaResponseDto(p.getId(), p.getNombre(), p.getApellido(), p.getDni(), p.getEmail());
+    }
+
+    private static int limite(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limit, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Índice que se reconstruye desde la base sin perder los cambios confirmados mientras tanto: cada cambio se
+     * aplica al índice en uso y, si hay una reconstrucción en curso, se guarda para repetirlo sobre el nuevo índice
+     * justo antes de sustituirlo. Así una fila leída antes de su actualización no pisa el cambio.
+     */
+    private static final class IndiceReconstruible {
+
+        private final Object reconstruccion = new Object();
+        private volatile IndiceTrigramas<BusquedaResponseDto> actual = new IndiceTrigramas<>();
+        private List<Consumer<IndiceTrigramas<BusquedaResponseDto>>> pendientes;
+
+        synchronized void aplicar(Consumer<IndiceTrigramas<BusquedaResponseDto>> cambio) {
+            cambio.accept(actual);
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+        }
+
+        void reconstruir(Consumer<IndiceTrigramas<BusquedaResponseDto>> carga) {
+            synchronized (reconstruccion) {
+                synchronized (this) {
+                    pendientes = new ArrayList<>();
+                }
+                IndiceTrigramas<BusquedaResponseDto> nuevo = new IndiceTrigramas<>();
+                try {
+                    carga.accept(nuevo);
+                } catch (RuntimeException ex) {
+                    synchronized (this) {
+                        pendientes = null;
+                    }
+                    throw ex;
+                }
+                synchronized (this) {
+                    pendientes.forEach(cambio -> cambio.accept(nuevo));
+                    pendientes = null;
+                    actual = nuevo;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.matricula_universitaria.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché de los listados completos de catálogo ya serializados. Cada catálogo tiene un número de versión que
+ * los servicios de escritura incrementan al confirmar; mientras no cambie, las peticiones reutilizan los mismos
+ * bytes y la ETag permite responder 304. Solo una petición a la vez reconstruye un catálogo: las que esperan
+ * aceptan cualquier versión igual o posterior a la que vieron al llegar.
+ */
+@Service
+public class CatalogoCacheServiceImpl implements CatalogoCacheService {
+
+    private final ObjectMapper objectMapper;
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Catalogo, Entrada> entradas = new EnumMap<>(Catalogo.class);
+
+    public CatalogoCacheServiceImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        for (Catalogo catalogo : Catalogo.values()) {
+            entradas.put(catalogo, new Entrada(Counter.builder("matricula.catalogo.serializaciones")
+                    .description("Listados de catálogo reconstruidos y serializados")
+                    .tag("catalogo", nombre(catalogo))
+                    .register(meterRegistry)));
+        }
+    }
+
+    @Override
+    public CatalogoSerializado obtener(Catalogo catalogo, Supplier<?> cargar) {
+        Entrada entrada = entradas.get(catalogo);
+        long version = entrada.version.get();
+        Version actual = entrada.actual;
+        if (actual != null && actual.numero() >= version) {
+            return actual.serializado();
+        }
+        entrada.lock.lock();
+        try {
+            actual = entrada.actual;
+            if (actual != null && actual.numero() >= version) {
+                return actual.serializado();
+            }
+            // La versión se lee antes de cargar: si cambia durante la carga, la siguiente petición reconstruye.
+            long cargada = entrada.version.get();
+            byte[] json = objectMapper.writeValueAsBytes(cargar.get());
+            String etag = nombre(catalogo) + "-" + arranque + "-" + cargada;
+            entrada.actual = new Version(cargada, new CatalogoSerializado(etag, json, comprimir(json)));
+            entrada.serializaciones.increment();
+            return entrada.actual.serializado();
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            entrada.lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidar(Catalogo... catalogos) {
+        Transacciones.alConfirmar(() -> {
+            for (Catalogo catalogo : catalogos) {
+                entradas.get(catalogo).version.incrementAndGet();
+            }
+        });
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return salida.toByteArray();
+    }
+
+    private static String nombre(Catalogo catalogo) {
+        return catalogo.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entrada {
+
+        private final AtomicLong version = new AtomicLong();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Counter serializaciones;
+        private volatile Version actual;
+
+        Entrada(Counter serializaciones) {
+            this.serializaciones = serializaciones;
+        }
+    }
+
+    private record Version(long numero, CatalogoSerializado serializado) {
+    }
+}
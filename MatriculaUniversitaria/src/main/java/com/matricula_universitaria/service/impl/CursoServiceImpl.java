@@ -2,16 +2,22 @@ package com.matricula_universitaria.service.impl;
 
 import com.matricula_universitaria.dto.CursoRequestDto;
 import com.matricula_universitaria.dto.CursoResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 import com.matricula_universitaria.entity.Curso;
 import com.matricula_universitaria.exceptions.BadRequestException;
 import com.matricula_universitaria.exceptions.ResourceNotFoundException;
 import com.matricula_universitaria.mapper.CursoMapper;
 import com.matricula_universitaria.repository.CursoRepository;
+import com.matricula_universitaria.repository.ScrollRepository;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
 import com.matricula_universitaria.service.CursoService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -19,11 +25,17 @@ public class CursoServiceImpl implements CursoService {
 
     private final CursoRepository cursoRepository;
     private final CursoMapper cursoMapper;
+    private final ScrollRepository scrollRepository;
+    private final CatalogoCacheService catalogoCacheService;
 
     public CursoServiceImpl(CursoRepository cursoRepository,
-                            CursoMapper cursoMapper) {
+                            CursoMapper cursoMapper,
+                            ScrollRepository scrollRepository,
+                            CatalogoCacheService catalogoCacheService) {
         this.cursoRepository = cursoRepository;
         this.cursoMapper = cursoMapper;
+        this.scrollRepository = scrollRepository;
+        this.catalogoCacheService = catalogoCacheService;
     }
 
     @Override
@@ -33,6 +45,7 @@ public class CursoServiceImpl implements CursoService {
 
         Curso entity = cursoMapper.toEntity(request);
         Curso saved = cursoRepository.save(entity);
+        catalogoCacheService.invalidar(Catalogo.CURSOS);
         return cursoMapper.toResponse(saved);
     }
 
@@ -48,6 +61,7 @@ public class CursoServiceImpl implements CursoService {
 
         cursoMapper.updateEntity(request, entity);
         Curso updated = cursoRepository.save(entity);
+        catalogoCacheService.invalidar(Catalogo.CURSOS, Catalogo.SECCIONES);
         return cursoMapper.toResponse(updated);
     }
 
@@ -56,6 +70,7 @@ public class CursoServiceImpl implements CursoService {
         Curso entity = cursoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con id " + id));
         cursoRepository.delete(entity);
+        catalogoCacheService.invalidar(Catalogo.CURSOS, Catalogo.SECCIONES);
     }
 
     @Override
@@ -67,8 +82,24 @@ public class CursoServiceImpl implements CursoService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    // Lectura-escritura para leer del primario: el resultado llena la caché de consultas y la del catálogo.
+    @Transactional
     public List<CursoResponseDto> listarTodos() {
         return cursoMapper.toResponseList(cursoRepository.findAll());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDto<CursoResponseDto> listarPagina(Long after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Curso> filas = cursoRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.cursor(after), Paginacion.consulta(limite));
+        return Paginacion.pagina(filas, limite, Curso::getId, cursoMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recorrerTodos(Long after, Consumer<CursoResponseDto> consumer) {
+        scrollRepository.recorrerCursos(Paginacion.cursor(after), e -> consumer.accept(cursoMapper.toResponse(e)));
+    }
 }
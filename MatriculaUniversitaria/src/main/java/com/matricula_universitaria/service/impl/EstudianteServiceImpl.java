@@ -1,29 +1,81 @@
 package com.matricula_universitaria.service.impl;
 
+import com.matricula_universitaria.dto.BusquedaResponseDto;
+import com.matricula_universitaria.dto.EstudianteImportItemResponseDto;
+import com.matricula_universitaria.dto.EstudianteImportResponseDto;
 import com.matricula_universitaria.dto.EstudianteRequestDto;
 import com.matricula_universitaria.dto.EstudianteResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 import com.matricula_universitaria.entity.Estudiante;
 import com.matricula_universitaria.exceptions.BadRequestException;
 import com.matricula_universitaria.exceptions.ResourceNotFoundException;
 import com.matricula_universitaria.mapper.EstudianteMapper;
+import com.matricula_universitaria.repository.EstudianteCopyRepository;
 import com.matricula_universitaria.repository.EstudianteRepository;
+import com.matricula_universitaria.repository.ScrollRepository;
+import com.matricula_universitaria.service.BusquedaService;
 import com.matricula_universitaria.service.EstudianteService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EstudianteServiceImpl implements EstudianteService {
 
+    private static final List<String> COLUMNAS_REQUERIDAS =
+            List.of("nombre", "apellido", "dni", "email", "fechanacimiento");
+    private static final List<String> CAMPOS = List.of(
+            "nombre", "apellido", "dni", "email", "telefono", "fechanacimiento", "direccion", "activo");
+
     private final EstudianteRepository estudianteRepository;
     private final EstudianteMapper estudianteMapper;
+    private final ScrollRepository scrollRepository;
+    private final BusquedaService busquedaService;
+    private final EstudianteCopyRepository estudianteCopyRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
     public EstudianteServiceImpl(EstudianteRepository estudianteRepository,
-                                 EstudianteMapper estudianteMapper) {
+                                 EstudianteMapper estudianteMapper,
+                                 ScrollRepository scrollRepository,
+                                 BusquedaService busquedaService,
+                                 EstudianteCopyRepository estudianteCopyRepository,
+                                 Validator validator,
+                                 TransactionTemplate transactionTemplate) {
         this.estudianteRepository = estudianteRepository;
         this.estudianteMapper = estudianteMapper;
+        this.scrollRepository = scrollRepository;
+        this.busquedaService = busquedaService;
+        this.estudianteCopyRepository = estudianteCopyRepository;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -35,9 +87,173 @@ public class EstudianteServiceImpl implements EstudianteService {
 
         Estudiante entity = estudianteMapper.toEntity(request);
         Estudiante saved = estudianteRepository.save(entity);
+        busquedaService.indexarEstudiante(saved);
         return estudianteMapper.toResponse(saved);
     }
 
+    /**
+     * Valida el CSV completo y lo copia a un archivo temporal antes de abrir la transacción: la tabla solo queda
+     * bloqueada mientras se cargan filas ya validadas, no mientras llega la subida del cliente.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EstudianteImportResponseDto importar(InputStream csv) {
+        LectorCsv lector = new LectorCsv(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        List<String> cabecera = lector.leer();
+        if (cabecera == null) {
+            throw new BadRequestException("El archivo CSV está vacío");
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.put(columna(cabecera.get(i)), i);
+        }
+        for (String requerida : COLUMNAS_REQUERIDAS) {
+            if (!columnas.containsKey(requerida)) {
+                throw new BadRequestException("Falta la columna " + requerida + " en la cabecera del CSV");
+            }
+        }
+
+        Path temporal = null;
+        try {
+            temporal = Files.createTempFile("importacion-estudiantes-", ".csv");
+            int total = 0;
+            List<EstudianteImportItemResponseDto> rechazos = new ArrayList<>();
+            try (Writer validas = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                List<String> fila;
+                while ((fila = lector.leer()) != null) {
+                    if (fila.size() == 1 && fila.get(0).isBlank()) {
+                        continue;
+                    }
+                    total++;
+                    long linea = lector.lineaRegistro();
+                    String dni = valor(fila, columnas, "dni");
+                    String rechazo = validar(fila, columnas);
+                    if (rechazo != null) {
+                        rechazos.add(new EstudianteImportItemResponseDto(linea, dni, rechazo));
+                        continue;
+                    }
+                    validas.write(Long.toString(linea));
+                    for (String campo : CAMPOS) {
+                        validas.write(',');
+                        escribirCampo(validas, valor(fila, columnas, campo));
+                    }
+                    validas.write('\n');
+                }
+            }
+
+            Path cargar = temporal;
+            long importados = transactionTemplate.execute(estado -> cargar(cargar, rechazos));
+            rechazos.sort(Comparator.comparingLong(EstudianteImportItemResponseDto::linea));
+            return new EstudianteImportResponseDto(total, importados, rechazos.size(), rechazos);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException ignored) {
+                    // El sistema operativo limpiará el directorio temporal.
+                }
+            }
+        }
+    }
+
+    private long cargar(Path validas, List<EstudianteImportItemResponseDto> rechazos) {
+        estudianteCopyRepository.bloquearAltas();
+        Set<String> dnis = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Object[] fila : estudianteRepository.findDnisYEmails()) {
+            dnis.add((String) fila[0]);
+            emails.add((String) fila[1]);
+        }
+
+        long importados;
+        try (BufferedReader reader = Files.newBufferedReader(validas, StandardCharsets.UTF_8);
+             EstudianteCopyRepository.Carga carga = estudianteCopyRepository.abrirCarga()) {
+            LectorCsv lector = new LectorCsv(reader);
+            List<String> fila;
+            while ((fila = lector.leer()) != null) {
+                long linea = Long.parseLong(fila.get(0));
+                EstudianteRequestDto request = solicitud(fila.subList(1, fila.size()));
+                if (dnis.contains(request.dni())) {
+                    rechazos.add(new EstudianteImportItemResponseDto(linea, request.dni(),
+                            "Ya existe un estudiante con DNI " + request.dni()));
+                } else if (emails.contains(request.email())) {
+                    rechazos.add(new EstudianteImportItemResponseDto(linea, request.dni(),
+                            "Ya existe un estudiante con email " + request.email()));
+                } else {
+                    dnis.add(request.dni());
+                    emails.add(request.email());
+                    carga.agregar(estudianteMapper.toEntity(request));
+                }
+            }
+            importados = carga.terminar();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (importados > 0) {
+            Transacciones.alConfirmar(() -> CompletableFuture.runAsync(busquedaService::recargarEstudiantes));
+        }
+        return importados;
+    }
+
+    /** Devuelve el motivo de rechazo de la fila, o {@code null} si es válida. */
+    private String validar(List<String> fila, Map<String, Integer> columnas) {
+        List<String> valores = CAMPOS.stream().map(campo -> valor(fila, columnas, campo)).toList();
+        EstudianteRequestDto request;
+        try {
+            request = solicitud(valores);
+        } catch (DateTimeParseException ex) {
+            return "fechaNacimiento: formato inválido, se espera AAAA-MM-DD";
+        } catch (IllegalArgumentException ex) {
+            return ex.getMessage();
+        }
+        Set<ConstraintViolation<EstudianteRequestDto>> violaciones = validator.validate(request);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /** Construye la solicitud a partir de los valores en el orden de {@link #CAMPOS}; vacío equivale a ausente. */
+    private static EstudianteRequestDto solicitud(List<String> valores) {
+        String fechaNacimiento = vacioANulo(valores.get(5));
+        String activo = vacioANulo(valores.get(7));
+        return new EstudianteRequestDto(
+                vacioANulo(valores.get(0)),
+                vacioANulo(valores.get(1)),
+                vacioANulo(valores.get(2)),
+                vacioANulo(valores.get(3)),
+                vacioANulo(valores.get(4)),
+                fechaNacimiento != null ? LocalDate.parse(fechaNacimiento) : null,
+                vacioANulo(valores.get(6)),
+                activo != null ? booleano(activo) : null);
+    }
+
+    private static Boolean booleano(String valor) {
+        return switch (valor.toLowerCase(Locale.ROOT)) {
+            case "true", "si", "sí", "1" -> Boolean.TRUE;
+            case "false", "no", "0" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException(
+                    "activo: valor inválido '" + valor + "', se espera true/false, si/no o 1/0");
+        };
+    }
+
+    private static String vacioANulo(String valor) {
+        return valor == null || valor.isEmpty() ? null : valor;
+    }
+
+    private static void escribirCampo(Writer writer, String valor) throws IOException {
+        if (valor != null) {
+            writer.write('"');
+            writer.write(valor.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
     @Override
     public EstudianteResponseDto actualizar(Long id, EstudianteRequestDto request) {
         Estudiante entity = estudianteRepository.findById(id)
@@ -54,6 +270,7 @@ public class EstudianteServiceImpl implements EstudianteService {
 
         estudianteMapper.updateEntity(request, entity);
         Estudiante updated = estudianteRepository.save(entity);
+        busquedaService.indexarEstudiante(updated);
         return estudianteMapper.toResponse(updated);
     }
 
@@ -62,6 +279,7 @@ public class EstudianteServiceImpl implements EstudianteService {
         Estudiante entity = estudianteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con id " + id));
         estudianteRepository.delete(entity);
+        busquedaService.eliminarEstudiante(id);
     }
 
     @Override
@@ -78,6 +296,27 @@ public class EstudianteServiceImpl implements EstudianteService {
         return estudianteMapper.toResponseList(estudianteRepository.findAll());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDto<EstudianteResponseDto> listarPagina(Long after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Estudiante> filas = estudianteRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.cursor(after), Paginacion.consulta(limite));
+        return Paginacion.pagina(filas, limite, Estudiante::getId, estudianteMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recorrerTodos(Long after, Consumer<EstudianteResponseDto> consumer) {
+        scrollRepository.recorrerEstudiantes(Paginacion.cursor(after), e -> consumer.accept(estudianteMapper.toResponse(e)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BusquedaResponseDto> buscar(String q, Integer limit) {
+        return busquedaService.buscarEstudiantes(q, limit);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<EstudianteResponseDto> buscarPorApellido(String apellido) {
@@ -85,4 +324,17 @@ public class EstudianteServiceImpl implements EstudianteService {
                 estudianteRepository.findByApellidoContainingIgnoreCase(apellido)
         );
     }
+
+    private static String columna(String nombre) {
+        return nombre.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String valor(List<String> fila, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= fila.size()) {
+            return null;
+        }
+        String valor = fila.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
 }
@@ -0,0 +1,128 @@
+package com.matricula_universitaria.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Horario semanal como mapa de bits de franjas de 15 minutos (7 días x 96 franjas = 11 {@code long}).
+ * Se construye a partir de los textos libres {@code horario} y {@code dias} de la sección, p. ej.
+ * {@code "Lun-Mie 8:00-10:00"}, {@code "Lun y Jue 14:00-16:00; Vie 8-10"} o {@code horario = "08:00-10:00"}
+ * con {@code dias = "Lunes, Miércoles"}. El guion separa días de una lista, como en el resto del sistema:
+ * {@code "Lun-Mie"} es lunes y miércoles. Un rango se escribe {@code "Lun a Vie"}, {@code "Lun al Vie"} o
+ * {@code "Lun..Vie"}. Lo que no se puede interpretar no ocupa franjas.
+ */
+final class HorarioSemanal {
+
+    static final int MINUTOS_POR_FRANJA = 15;
+    private static final int FRANJAS_POR_DIA = 24 * 60 / MINUTOS_POR_FRANJA;
+    private static final int PALABRAS = (7 * FRANJAS_POR_DIA + Long.SIZE - 1) / Long.SIZE;
+
+    static final HorarioSemanal VACIO = new HorarioSemanal(new long[PALABRAS]);
+
+    private static final Pattern RANGO_HORAS = Pattern.compile(
+            "(\\d{1,2})(?:[:.h](\\d{2}))?\\s*h?\\s*(?:-|a)\\s*(\\d{1,2})(?:[:.h](\\d{2}))?");
+    private static final Pattern DIA = Pattern.compile("(?<![a-z])(lun|mar|mie|jue|vie|sab|dom)[a-z]*");
+    private static final List<String> DIAS = List.of("lun", "mar", "mie", "jue", "vie", "sab", "dom");
+
+    private final long[] franjas;
+
+    private HorarioSemanal(long[] franjas) {
+        this.franjas = franjas;
+    }
+
+    static HorarioSemanal parsear(String horario, String dias) {
+        String texto = normalizar(horario);
+        int diasAnteriores = dias(normalizar(dias));
+        List<MatchResult> rangos = RANGO_HORAS.matcher(texto).results().toList();
+        if (rangos.isEmpty()) {
+            return VACIO;
+        }
+
+        // "8:00-10:00 Lun Mie" lleva los días detrás de cada rango; "Lun Mie 8:00-10:00", delante.
+        boolean diasDetras = dias(texto.substring(0, rangos.get(0).start())) == 0;
+        long[] franjas = new long[PALABRAS];
+        boolean alguna = false;
+        for (int i = 0; i < rangos.size(); i++) {
+            MatchResult rango = rangos.get(i);
+            int desde = diasDetras ? rango.end() : (i == 0 ? 0 : rangos.get(i - 1).end());
+            int hasta = diasDetras ? (i + 1 < rangos.size() ? rangos.get(i + 1).start() : texto.length()) : rango.start();
+            int diasRango = dias(texto.substring(desde, hasta));
+            if (diasRango == 0) {
+                diasRango = diasAnteriores;
+            }
+            diasAnteriores = diasRango;
+            int inicio = minutos(rango.group(1), rango.group(2));
+            int fin = minutos(rango.group(3), rango.group(4));
+            if (diasRango == 0 || inicio >= fin || fin > 24 * 60) {
+                continue;
+            }
+            int primera = inicio / MINUTOS_POR_FRANJA;
+            int ultima = (fin + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA;
+            for (int dia = 0; dia < 7; dia++) {
+                if ((diasRango & (1 << dia)) == 0) {
+                    continue;
+                }
+                for (int franja = primera; franja < ultima; franja++) {
+                    int bit = dia * FRANJAS_POR_DIA + franja;
+                    franjas[bit / Long.SIZE] |= 1L << (bit % Long.SIZE);
+                    alguna = true;
+                }
+            }
+        }
+        return alguna ? new HorarioSemanal(franjas) : VACIO;
+    }
+
+    boolean seCruzaCon(HorarioSemanal otro) {
+        for (int i = 0; i < PALABRAS; i++) {
+            if ((franjas[i] & otro.franjas[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean esVacio() {
+        return this == VACIO;
+    }
+
+    private static int dias(String texto) {
+        Matcher matcher = DIA.matcher(texto);
+        List<MatchResult> encontrados = new ArrayList<>();
+        while (matcher.find()) {
+            encontrados.add(matcher.toMatchResult());
+        }
+        int mascara = 0;
+        for (int i = 0; i < encontrados.size(); i++) {
+            int dia = DIAS.indexOf(encontrados.get(i).group(1));
+            mascara |= 1 << dia;
+            if (i == 0) {
+                continue;
+            }
+            String separador = texto.substring(encontrados.get(i - 1).end(), encontrados.get(i).start()).trim();
+            if (separador.equals("a") || separador.equals("al") || separador.equals("..")) {
+                for (int d = DIAS.indexOf(encontrados.get(i - 1).group(1)); d < dia; d++) {
+                    mascara |= 1 << d;
+                }
+            }
+        }
+        return mascara;
+    }
+
+    private static int minutos(String horas, String minutos) {
+        return Integer.parseInt(horas) * 60 + (minutos != null ? Integer.parseInt(minutos) : 0);
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,141 @@
+package com.matricula_universitaria.service.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.repository.MatriculaRepository;
+import com.matricula_universitaria.service.HorarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detección de cruces de horario. Cada estudiante tiene en caché las secciones de sus matrículas activas con su
+ * {@link HorarioSemanal} ya calculado, así que comprobar una matrícula nueva es un AND de bits por sección y no
+ * consulta la base de datos salvo en el primer acceso. Quien matricula bloquea antes la fila del estudiante y los
+ * cambios se aplican a la caché justo antes de confirmar, con el bloqueo aún tomado: la siguiente matrícula del mismo
+ * estudiante ya los ve. Si la transacción no llega a confirmarse, la entrada del estudiante se descarta.
+ */
+@Service
+public class HorarioServiceImpl implements HorarioService {
+
+    private final MatriculaRepository matriculaRepository;
+    private final Map<Long, HorarioSeccion> secciones = new ConcurrentHashMap<>();
+    private final LoadingCache<Long, List<HorarioSeccion>> estudiantes;
+
+    public HorarioServiceImpl(MatriculaRepository matriculaRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${matricula.horario.cache-estudiantes:100000}") long maxEstudiantes,
+                              @Value("${matricula.horario.expiracion-min:30}") long expiracionMinutos) {
+        this.matriculaRepository = matriculaRepository;
+        this.estudiantes = Caffeine.newBuilder()
+                .maximumSize(maxEstudiantes)
+                .expireAfterWrite(Duration.ofMinutes(expiracionMinutos))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public List<HorarioSeccion> load(Long estudianteId) {
+                        return cargar(Set.of(estudianteId)).get(estudianteId);
+                    }
+
+                    @Override
+                    public Map<Long, List<HorarioSeccion>> loadAll(Set<? extends Long> estudianteIds) {
+                        return cargar(estudianteIds);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, estudiantes, "horario-estudiantes");
+    }
+
+    @Override
+    public Optional<String> buscarCruce(Long estudianteId, Seccion seccion, Long seccionExcluidaId) {
+        HorarioSeccion nueva = horario(seccion);
+        if (nueva.horario().esVacio()) {
+            return Optional.empty();
+        }
+        for (HorarioSeccion actual : estudiantes.get(estudianteId)) {
+            if (!actual.seccionId().equals(seccionExcluidaId)
+                    && !actual.seccionId().equals(nueva.seccionId())
+                    && nueva.seCruzaCon(actual)) {
+                return Optional.of(actual.codigo());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean seCruzan(Seccion seccion, Seccion otra) {
+        return !seccion.getId().equals(otra.getId()) && horario(seccion).seCruzaCon(horario(otra));
+    }
+
+    @Override
+    public void precargar(Collection<Long> estudianteIds) {
+        if (!estudianteIds.isEmpty()) {
+            estudiantes.getAll(estudianteIds);
+        }
+    }
+
+    @Override
+    public void registrarMatricula(Long estudianteId, Seccion seccion) {
+        HorarioSeccion nueva = horario(seccion);
+        Transacciones.antesDeConfirmar(() -> estudiantes.asMap().computeIfPresent(estudianteId, (id, actuales) -> {
+            List<HorarioSeccion> resultado = new ArrayList<>(actuales);
+            resultado.removeIf(h -> h.seccionId().equals(nueva.seccionId()));
+            resultado.add(nueva);
+            return List.copyOf(resultado);
+        }), () -> estudiantes.invalidate(estudianteId));
+    }
+
+    @Override
+    public void liberarMatricula(Long estudianteId, Long seccionId) {
+        Transacciones.antesDeConfirmar(() -> estudiantes.asMap().computeIfPresent(estudianteId, (id, actuales) ->
+                actuales.stream().filter(h -> !h.seccionId().equals(seccionId)).toList()),
+                () -> estudiantes.invalidate(estudianteId));
+    }
+
+    @Override
+    public void invalidarSeccion(Long seccionId) {
+        Transacciones.alConfirmar(() -> {
+            secciones.remove(seccionId);
+            estudiantes.invalidateAll();
+        });
+    }
+
+    private Map<Long, List<HorarioSeccion>> cargar(Set<? extends Long> estudianteIds) {
+        Map<Long, List<HorarioSeccion>> cargados = new HashMap<>();
+        estudianteIds.forEach(id -> cargados.put(id, new ArrayList<>()));
+        for (Object[] fila : matriculaRepository.findHorariosActivosByEstudianteIdIn(new ArrayList<Long>(estudianteIds))) {
+            Long seccionId = (Long) fila[1];
+            HorarioSeccion horario = secciones.computeIfAbsent(seccionId, id -> new HorarioSeccion(
+                    id, (String) fila[2], (String) fila[3], HorarioSemanal.parsear((String) fila[4], (String) fila[5])));
+            cargados.get((Long) fila[0]).add(horario);
+        }
+        cargados.replaceAll((id, horarios) -> List.copyOf(horarios));
+        return cargados;
+    }
+
+    private HorarioSeccion horario(Seccion seccion) {
+        return secciones.computeIfAbsent(seccion.getId(), id -> new HorarioSeccion(
+                id, seccion.getCodigo(), seccion.getPeriodoAcademico(),
+                HorarioSemanal.parsear(seccion.getHorario(), seccion.getDias())));
+    }
+
+    private record HorarioSeccion(Long seccionId, String codigo, String periodoAcademico, HorarioSemanal horario) {
+
+        boolean seCruzaCon(HorarioSeccion otra) {
+            return Objects.equals(periodoAcademico, otra.periodoAcademico) && horario.seCruzaCon(otra.horario);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.matricula_universitaria.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas en memoria. Cada documento ocupa una posición creciente; las listas de
+ * posiciones por trigrama quedan ordenadas y la búsqueda intersecta primero la más corta. Reindexar o eliminar
+ * deja la posición anterior como hueco, y el índice se compacta cuando los huecos superan una cuarta parte.
+ */
+final class IndiceTrigramas<V> {
+
+    private static final int HUECOS_MINIMOS_PARA_COMPACTAR = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> posiciones = new HashMap<>();
+    private final Map<Long, ListaPosiciones> porTrigrama = new HashMap<>();
+    private Object[] valores = new Object[1024];
+    private String[] textos = new String[1024];
+    private int siguiente;
+    private int huecos;
+
+    void indexar(long id, V valor, String... campos) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            agregar(id, valor, texto(campos));
+            if (huecos > HUECOS_MINIMOS_PARA_COMPACTAR && huecos > siguiente / 4) {
+                compactar();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void eliminar(long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int tamano() {
+        lock.readLock().lock();
+        try {
+            return posiciones.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve como mucho {@code limite} valores cuyo texto contiene la consulta. Primero las coincidencias
+     * exactas de un campo, luego las que empiezan una palabra y por último el resto; a igualdad, el texto más corto.
+     */
+    @SuppressWarnings("unchecked")
+    List<V> buscar(String consulta, int limite) {
+        String normalizada = normalizar(consulta).trim();
+        if (normalizada.length() < 2 || limite <= 0) {
+            return List.of();
+        }
+        long[] claves = normalizada.length() == 2
+                ? trigramas(" " + normalizada)
+                : trigramas(normalizada);
+
+        lock.readLock().lock();
+        try {
+            ListaPosiciones[] listas = new ListaPosiciones[claves.length];
+            for (int i = 0; i < claves.length; i++) {
+                listas[i] = porTrigrama.get(claves[i]);
+                if (listas[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(listas, Comparator.comparingInt(l -> l.tamano));
+
+            Comparator<Candidato> peorPrimero = Comparator.comparingInt(Candidato::rango)
+                    .thenComparingInt(Candidato::longitud)
+                    .thenComparingInt(Candidato::posicion)
+                    .reversed();
+            PriorityQueue<Candidato> mejores = new PriorityQueue<>(limite + 1, peorPrimero);
+            ListaPosiciones menor = listas[0];
+            for (int i = 0; i < menor.tamano; i++) {
+                int posicion = menor.datos[i];
+                String texto = textos[posicion];
+                if (texto == null || !estaEnTodas(listas, posicion) || !texto.contains(normalizada)) {
+                    continue;
+                }
+                mejores.add(new Candidato(posicion, rango(texto, normalizada), texto.length()));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            List<V> resultado = new ArrayList<>(mejores.size());
+            while (!mejores.isEmpty()) {
+                resultado.add((V) valores[mejores.poll().posicion()]);
+            }
+            return resultado.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void agregar(long id, Object valor, String texto) {
+        if (siguiente == textos.length) {
+            valores = Arrays.copyOf(valores, siguiente * 2);
+            textos = Arrays.copyOf(textos, siguiente * 2);
+        }
+        int posicion = siguiente++;
+        valores[posicion] = valor;
+        textos[posicion] = texto;
+        posiciones.put(id, posicion);
+        for (long clave : trigramas(texto)) {
+            porTrigrama.computeIfAbsent(clave, k -> new ListaPosiciones()).agregar(posicion);
+        }
+    }
+
+    private void quitar(long id) {
+        Integer anterior = posiciones.remove(id);
+        if (anterior != null) {
+            valores[anterior] = null;
+            textos[anterior] = null;
+            huecos++;
+        }
+    }
+
+    private void compactar() {
+        Object[] valoresAnteriores = valores;
+        String[] textosAnteriores = textos;
+        Map<Long, Integer> posicionesAnteriores = new HashMap<>(posiciones);
+        valores = new Object[Math.max(1024, posicionesAnteriores.size() * 2)];
+        textos = new String[valores.length];
+        siguiente = 0;
+        huecos = 0;
+        posiciones.clear();
+        porTrigrama.clear();
+        posicionesAnteriores.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(e -> agregar(e.getKey(), valoresAnteriores[e.getValue()], textosAnteriores[e.getValue()]));
+    }
+
+    private static boolean estaEnTodas(ListaPosiciones[] listas, int posicion) {
+        for (int i = 1; i < listas.length; i++) {
+            if (Arrays.binarySearch(listas[i].datos, 0, listas[i].tamano, posicion) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int rango(String texto, String consulta) {
+        if (texto.contains(" " + consulta + " ")) {
+            return 0;
+        }
+        return texto.contains(" " + consulta) ? 1 : 2;
+    }
+
+    private static String texto(String... campos) {
+        StringBuilder texto = new StringBuilder(" ");
+        for (String campo : campos) {
+            if (campo != null && !campo.isBlank()) {
+                texto.append(normalizar(campo).trim()).append(' ');
+            }
+        }
+        return texto.toString();
+    }
+
+    private static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] claves = new long[texto.length() - 2];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        return Arrays.stream(claves).sorted().distinct().toArray();
+    }
+
+    static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private record Candidato(int posicion, int rango, int longitud) {
+    }
+
+    private static final class ListaPosiciones {
+
+        private int[] datos = new int[4];
+        private int tamano;
+
+        void agregar(int posicion) {
+            if (tamano == datos.length) {
+                datos = Arrays.copyOf(datos, tamano * 2);
+            }
+            datos[tamano++] = posicion;
+        }
+    }
+}
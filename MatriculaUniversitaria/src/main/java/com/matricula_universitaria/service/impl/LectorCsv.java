@@ -0,0 +1,93 @@
+package com.matricula_universitaria.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) que devuelve un registro cada vez; admite comillas, comillas dobles escapadas
+ * y saltos de línea dentro de campos entre comillas.
+ */
+final class LectorCsv {
+
+    private final Reader reader;
+    private long linea = 1;
+    private long lineaRegistro;
+    private int siguiente = -2;
+
+    LectorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    long lineaRegistro() {
+        return lineaRegistro;
+    }
+
+    List<String> leer() {
+        int c = leerCaracter();
+        if (c == -1) {
+            return null;
+        }
+        lineaRegistro = linea;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    break;
+                }
+                if (c == '"') {
+                    int d = leerCaracter();
+                    if (d == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = d;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int d = leerCaracter();
+                    if (d != '\n') {
+                        siguiente = d;
+                    }
+                }
+                break;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = leerCaracter();
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private int leerCaracter() {
+        int c;
+        if (siguiente != -2) {
+            c = siguiente;
+            siguiente = -2;
+        } else {
+            try {
+                c = reader.read();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        if (c == '\n') {
+            linea++;
+        }
+        return c;
+    }
+}
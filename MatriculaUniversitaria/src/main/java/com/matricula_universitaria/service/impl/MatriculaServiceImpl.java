@@ -1,7 +1,10 @@
 package com.matricula_universitaria.service.impl;
 
+import com.matricula_universitaria.dto.MatriculaBatchItemResponseDto;
+import com.matricula_universitaria.dto.MatriculaBatchResponseDto;
 import com.matricula_universitaria.dto.MatriculaRequestDto;
 import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 import com.matricula_universitaria.entity.Estudiante;
 import com.matricula_universitaria.entity.Matricula;
 import com.matricula_universitaria.entity.Seccion;
@@ -10,53 +13,294 @@ import com.matricula_universitaria.exceptions.ResourceNotFoundException;
 import com.matricula_universitaria.mapper.MatriculaMapper;
 import com.matricula_universitaria.repository.EstudianteRepository;
 import com.matricula_universitaria.repository.MatriculaRepository;
+import com.matricula_universitaria.repository.ScrollRepository;
 import com.matricula_universitaria.repository.SeccionRepository;
+import com.matricula_universitaria.service.HorarioService;
 import com.matricula_universitaria.service.MatriculaService;
+import com.matricula_universitaria.service.OcupacionService;
+import com.matricula_universitaria.service.OutboxService;
+import com.matricula_universitaria.service.ReporteMatriculaService;
+import com.matricula_universitaria.service.impl.ReintentoOptimista.Entidad;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MatriculaServiceImpl implements MatriculaService {
 
+    private static final String YA_MATRICULADO = "El estudiante ya está matriculado en esa sección";
+    /** Filas del lote por transacción. */
+    private static final int TAMANO_TRAMO = 1000;
+    private static final int MAX_INTENTOS_TRAMO = 3;
+
     private final MatriculaRepository matriculaRepository;
     private final EstudianteRepository estudianteRepository;
     private final SeccionRepository seccionRepository;
     private final MatriculaMapper matriculaMapper;
+    private final ScrollRepository scrollRepository;
+    private final OcupacionService ocupacionService;
+    private final HorarioService horarioService;
+    private final ReporteMatriculaService reporteMatriculaService;
+    private final OutboxService outboxService;
+    private final ReintentoOptimista reintentoOptimista;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int maxFilasLote;
 
     public MatriculaServiceImpl(MatriculaRepository matriculaRepository,
                                 EstudianteRepository estudianteRepository,
                                 SeccionRepository seccionRepository,
-                                MatriculaMapper matriculaMapper) {
+                                MatriculaMapper matriculaMapper,
+                                ScrollRepository scrollRepository,
+                                OcupacionService ocupacionService,
+                                HorarioService horarioService,
+                                ReporteMatriculaService reporteMatriculaService,
+                                OutboxService outboxService,
+                                ReintentoOptimista reintentoOptimista,
+                                Validator validator,
+                                TransactionTemplate transactionTemplate,
+                                EntityManager entityManager,
+                                @Value("${matricula.batch.max-filas:10000}") int maxFilasLote) {
         this.matriculaRepository = matriculaRepository;
         this.estudianteRepository = estudianteRepository;
         this.seccionRepository = seccionRepository;
         this.matriculaMapper = matriculaMapper;
+        this.scrollRepository = scrollRepository;
+        this.ocupacionService = ocupacionService;
+        this.horarioService = horarioService;
+        this.reporteMatriculaService = reporteMatriculaService;
+        this.outboxService = outboxService;
+        this.reintentoOptimista = reintentoOptimista;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.maxFilasLote = maxFilasLote;
     }
 
     @Override
     public MatriculaResponseDto crear(MatriculaRequestDto request) {
-        Estudiante estudiante = estudianteRepository.findById(request.estudianteId())
+        // El bloqueo del estudiante ordena sus matrículas concurrentes: duplicados y cruces se comprueban de una en una.
+        Estudiante estudiante = estudianteRepository.findBloqueadoById(request.estudianteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con id " + request.estudianteId()));
         Seccion seccion = seccionRepository.findById(request.seccionId())
                 .orElseThrow(() -> new ResourceNotFoundException("Sección no encontrada con id " + request.seccionId()));
 
         matriculaRepository.findByEstudianteIdAndSeccionId(estudiante.getId(), seccion.getId())
-                .ifPresent(m -> { throw new BadRequestException("El estudiante ya está matriculado en esa sección"); });
+                .ifPresent(m -> { throw new BadRequestException(YA_MATRICULADO); });
 
         Matricula entity = matriculaMapper.toEntity(request, estudiante, seccion);
-        Matricula saved = matriculaRepository.save(entity);
+        if (entity.ocupaVacante()) {
+            verificarCruce(estudiante.getId(), seccion, null);
+        }
+        Matricula saved = insertar(entity);
+        reporteMatriculaService.sumar(saved);
+        outboxService.registrarMatriculaCreada(saved, estudiante.getEmail());
+        if (saved.ocupaVacante()) {
+            // La reserva bloquea la fila de la sección hasta confirmar: va al final, con los INSERT ya enviados.
+            matriculaRepository.flush();
+            reservarVacante(seccion);
+            horarioService.registrarMatricula(estudiante.getId(), seccion);
+        }
         return matriculaMapper.toResponse(saved);
     }
 
+    /**
+     * Valida el lote completo y lo inserta en tramos de {@link #TAMANO_TRAMO} filas, cada uno en su propia
+     * transacción: los bloqueos de estudiantes y secciones duran lo que un tramo y no lo que el lote entero.
+     */
     @Override
-    public MatriculaResponseDto actualizar(Long id, MatriculaRequestDto request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MatriculaBatchResponseDto crearLote(List<MatriculaRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("El lote de matrículas está vacío");
+        }
+        if (requests.size() > maxFilasLote) {
+            throw new BadRequestException("El lote supera el máximo de " + maxFilasLote + " matrículas");
+        }
+
+        MatriculaBatchItemResponseDto[] resultados = new MatriculaBatchItemResponseDto[requests.size()];
+        List<Integer> validas = new ArrayList<>();
+        Set<Long> seccionIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            MatriculaRequestDto request = requests.get(i);
+            if (request == null) {
+                resultados[i] = rechazada(i, null, "Fila vacía");
+                continue;
+            }
+            Set<ConstraintViolation<MatriculaRequestDto>> violaciones = validator.validate(request);
+            if (!violaciones.isEmpty()) {
+                resultados[i] = rechazada(i, request, violaciones.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            validas.add(i);
+            seccionIds.add(request.seccionId());
+        }
+
+        Map<Long, Seccion> secciones = seccionRepository.findAllById(seccionIds).stream()
+                .collect(Collectors.toMap(Seccion::getId, Function.identity()));
+        int insertadas = 0;
+        for (int desde = 0; desde < validas.size(); desde += TAMANO_TRAMO) {
+            List<Integer> tramo = validas.subList(desde, Math.min(desde + TAMANO_TRAMO, validas.size()));
+            for (MatriculaBatchItemResponseDto resultado : crearTramo(requests, tramo, secciones)) {
+                resultados[resultado.indice()] = resultado;
+                if (resultado.creada()) {
+                    insertadas++;
+                }
+            }
+        }
+
+        return new MatriculaBatchResponseDto(
+                requests.size(),
+                insertadas,
+                requests.size() - insertadas,
+                Arrays.asList(resultados)
+        );
+    }
+
+    /**
+     * Un INSERT que choca con {@code uk_matricula} aborta la transacción en PostgreSQL, así que el tramo se repite
+     * entero: la nueva comprobación de duplicados ve la fila que causó el choque y la informa como rechazada.
+     */
+    private List<MatriculaBatchItemResponseDto> crearTramo(List<MatriculaRequestDto> requests, List<Integer> tramo,
+                                                           Map<Long, Seccion> secciones) {
+        for (int intento = 1; ; intento++) {
+            try {
+                List<MatriculaBatchItemResponseDto> resultados =
+                        transactionTemplate.execute(estado -> insertarTramo(requests, tramo, secciones));
+                // Con open-in-view todos los tramos comparten el EntityManager de la petición: sin vaciarlo, cada
+                // flush revisaría también las entidades de los tramos ya confirmados.
+                entityManager.clear();
+                return resultados;
+            } catch (DataIntegrityViolationException ex) {
+                if (!esDuplicado(ex) || intento >= MAX_INTENTOS_TRAMO) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private List<MatriculaBatchItemResponseDto> insertarTramo(List<MatriculaRequestDto> requests, List<Integer> tramo,
+                                                              Map<Long, Seccion> secciones) {
+        List<MatriculaBatchItemResponseDto> resultados = new ArrayList<>(tramo.size());
+        Set<Long> estudianteIds = new HashSet<>();
+        Set<Long> seccionIds = new HashSet<>();
+        for (int i : tramo) {
+            estudianteIds.add(requests.get(i).estudianteId());
+            seccionIds.add(requests.get(i).seccionId());
+        }
+
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] fila : estudianteRepository.bloquearEmailsByIdIn(estudianteIds)) {
+            emails.put((Long) fila[0], (String) fila[1]);
+        }
+        Set<Long> estudiantesExistentes = emails.keySet();
+        seccionIds.retainAll(secciones.keySet());
+        Set<String> matriculados = new HashSet<>();
+        if (!estudiantesExistentes.isEmpty() && !seccionIds.isEmpty()) {
+            for (Object[] par : matriculaRepository.findParesByEstudianteIdInAndSeccionIdIn(
+                    estudiantesExistentes, seccionIds)) {
+                matriculados.add(par[0] + ":" + par[1]);
+            }
+        }
+        horarioService.precargar(estudiantesExistentes);
+
+        List<Integer> aceptadas = new ArrayList<>();
+        // Por id de sección: dos tramos concurrentes bloquean las filas de seccion en el mismo orden.
+        Map<Long, List<Integer>> pendientesPorSeccion = new TreeMap<>();
+        Map<Long, List<Seccion>> seccionesDelLote = new HashMap<>();
+        for (int i : tramo) {
+            MatriculaRequestDto request = requests.get(i);
+            if (!estudiantesExistentes.contains(request.estudianteId())) {
+                resultados.add(rechazada(i, request, "Estudiante no encontrado con id " + request.estudianteId()));
+            } else if (!secciones.containsKey(request.seccionId())) {
+                resultados.add(rechazada(i, request, "Sección no encontrada con id " + request.seccionId()));
+            } else if (!matriculados.add(request.estudianteId() + ":" + request.seccionId())) {
+                resultados.add(rechazada(i, request, YA_MATRICULADO));
+            } else if (Matricula.ESTADO_ANULADO.equals(request.estado())) {
+                aceptadas.add(i);
+            } else {
+                Seccion seccion = secciones.get(request.seccionId());
+                List<Seccion> delLote = seccionesDelLote.computeIfAbsent(request.estudianteId(), k -> new ArrayList<>());
+                Optional<String> cruce = buscarCruce(request.estudianteId(), seccion, delLote);
+                if (cruce.isPresent()) {
+                    resultados.add(rechazada(i, request, mensajeCruce(seccion, cruce.get())));
+                } else {
+                    delLote.add(seccion);
+                    pendientesPorSeccion.computeIfAbsent(request.seccionId(), k -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+
+        pendientesPorSeccion.forEach((seccionId, indices) -> {
+            int otorgadas = reservarVacantes(seccionId, indices.size());
+            aceptadas.addAll(indices.subList(0, otorgadas));
+            for (int i : indices.subList(otorgadas, indices.size())) {
+                resultados.add(rechazada(i, requests.get(i),
+                        "La sección " + secciones.get(seccionId).getCodigo() + " no tiene vacantes disponibles"));
+            }
+        });
+        aceptadas.sort(null);
+
+        List<Matricula> entities = new ArrayList<>(aceptadas.size());
+        for (int i : aceptadas) {
+            MatriculaRequestDto request = requests.get(i);
+            entities.add(matriculaMapper.toEntity(request,
+                    estudianteRepository.getReferenceById(request.estudianteId()),
+                    secciones.get(request.seccionId())));
+        }
+        List<Matricula> saved = matriculaRepository.saveAllAndFlush(entities);
+        for (int j = 0; j < aceptadas.size(); j++) {
+            int i = aceptadas.get(j);
+            MatriculaRequestDto request = requests.get(i);
+            resultados.add(new MatriculaBatchItemResponseDto(
+                    i, request.estudianteId(), request.seccionId(), saved.get(j).getId(), true, null));
+            if (saved.get(j).ocupaVacante()) {
+                horarioService.registrarMatricula(request.estudianteId(), secciones.get(request.seccionId()));
+            }
+            reporteMatriculaService.sumar(saved.get(j));
+            outboxService.registrarMatriculaCreada(saved.get(j), emails.get(request.estudianteId()));
+        }
+        return resultados;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public MatriculaResponseDto actualizar(Long id, MatriculaRequestDto request, Long versionEsperada) {
+        return reintentoOptimista.ejecutar(Entidad.MATRICULA, versionEsperada,
+                () -> actualizarVersion(id, request, versionEsperada));
+    }
+
+    private MatriculaResponseDto actualizarVersion(Long id, MatriculaRequestDto request, Long versionEsperada) {
         Matricula entity = matriculaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Matrícula no encontrada con id " + id));
+        ReintentoOptimista.verificarVersion(Entidad.MATRICULA, id, versionEsperada, entity.getVersion());
 
-        Estudiante estudiante = estudianteRepository.findById(request.estudianteId())
+        Estudiante estudiante = estudianteRepository.findBloqueadoById(request.estudianteId())
                 .orElseThrow(() -> new ResourceNotFoundException("Estudiante no encontrado con id " + request.estudianteId()));
         Seccion seccion = seccionRepository.findById(request.seccionId())
                 .orElseThrow(() -> new ResourceNotFoundException("Sección no encontrada con id " + request.seccionId()));
@@ -64,11 +308,39 @@ public class MatriculaServiceImpl implements MatriculaService {
         if (!entity.getEstudiante().getId().equals(estudiante.getId()) ||
                 !entity.getSeccion().getId().equals(seccion.getId())) {
             matriculaRepository.findByEstudianteIdAndSeccionId(estudiante.getId(), seccion.getId())
-                    .ifPresent(m -> { throw new BadRequestException("El estudiante ya está matriculado en esa sección"); });
+                    .ifPresent(m -> { throw new BadRequestException(YA_MATRICULADO); });
+        }
+
+        Long estudianteAnteriorId = entity.getEstudiante().getId();
+        Long seccionAnteriorId = entity.getSeccion().getId();
+        boolean ocupabaVacante = entity.ocupaVacante();
+
+        boolean mismoEstudiante = estudianteAnteriorId.equals(estudiante.getId());
+        if (!Matricula.ESTADO_ANULADO.equals(request.estado())
+                && (!ocupabaVacante || !mismoEstudiante || !seccionAnteriorId.equals(seccion.getId()))) {
+            verificarCruce(estudiante.getId(), seccion, mismoEstudiante ? seccionAnteriorId : null);
         }
 
+        reporteMatriculaService.restar(entity);
         matriculaMapper.updateEntity(request, entity, estudiante, seccion);
-        Matricula updated = matriculaRepository.save(entity);
+
+        // El flush incrementa la versión y detecta aquí un conflicto con otra escritura.
+        Matricula updated = matriculaRepository.saveAndFlush(entity);
+        reporteMatriculaService.sumar(updated);
+
+        boolean mismaSeccion = seccionAnteriorId.equals(seccion.getId());
+        if (ocupabaVacante && (!updated.ocupaVacante() || !mismaSeccion)) {
+            liberarVacante(seccionAnteriorId);
+        }
+        if (updated.ocupaVacante() && (!ocupabaVacante || !mismaSeccion)) {
+            reservarVacante(seccion);
+        }
+        if (ocupabaVacante) {
+            horarioService.liberarMatricula(estudianteAnteriorId, seccionAnteriorId);
+        }
+        if (updated.ocupaVacante()) {
+            horarioService.registrarMatricula(estudiante.getId(), seccion);
+        }
         return matriculaMapper.toResponse(updated);
     }
 
@@ -76,13 +348,18 @@ public class MatriculaServiceImpl implements MatriculaService {
     public void eliminar(Long id) {
         Matricula entity = matriculaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Matrícula no encontrada con id " + id));
+        if (entity.ocupaVacante()) {
+            liberarVacante(entity.getSeccion().getId());
+            horarioService.liberarMatricula(entity.getEstudiante().getId(), entity.getSeccion().getId());
+        }
+        reporteMatriculaService.restar(entity);
         matriculaRepository.delete(entity);
     }
 
     @Override
     @Transactional(readOnly = true)
     public MatriculaResponseDto obtenerPorId(Long id) {
-        Matricula entity = matriculaRepository.findById(id)
+        Matricula entity = matriculaRepository.findDetalladaById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Matrícula no encontrada con id " + id));
         return matriculaMapper.toResponse(entity);
     }
@@ -93,6 +370,27 @@ public class MatriculaServiceImpl implements MatriculaService {
         return matriculaMapper.toResponseList(matriculaRepository.findAll());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDto<MatriculaResponseDto> listarPagina(Long after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Matricula> filas = matriculaRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.cursor(after), Paginacion.consulta(limite));
+        return Paginacion.pagina(filas, limite, Matricula::getId, matriculaMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recorrerTodos(Long after, Consumer<MatriculaResponseDto> consumer) {
+        scrollRepository.recorrerMatriculas(Paginacion.cursor(after), e -> consumer.accept(matriculaMapper.toResponse(e)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recorrerPorPeriodo(String periodoAcademico, Consumer<MatriculaResponseDto> consumer) {
+        scrollRepository.recorrerMatriculasPorPeriodo(periodoAcademico, consumer);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<MatriculaResponseDto> listarPorEstudiante(Long estudianteId) {
@@ -104,4 +402,77 @@ public class MatriculaServiceImpl implements MatriculaService {
     public List<MatriculaResponseDto> listarPorSeccion(Long seccionId) {
         return matriculaMapper.toResponseList(matriculaRepository.findBySeccionId(seccionId));
     }
+
+    private void verificarCruce(Long estudianteId, Seccion seccion, Long seccionExcluidaId) {
+        horarioService.buscarCruce(estudianteId, seccion, seccionExcluidaId).ifPresent(codigo -> {
+            throw new BadRequestException(mensajeCruce(seccion, codigo));
+        });
+    }
+
+    private Optional<String> buscarCruce(Long estudianteId, Seccion seccion, List<Seccion> delLote) {
+        for (Seccion otra : delLote) {
+            if (horarioService.seCruzan(seccion, otra)) {
+                return Optional.of(otra.getCodigo());
+            }
+        }
+        return horarioService.buscarCruce(estudianteId, seccion, null);
+    }
+
+    private String mensajeCruce(Seccion seccion, String codigoCruce) {
+        return "El horario de la sección " + seccion.getCodigo() + " se cruza con la sección " + codigoCruce;
+    }
+
+    /**
+     * Dos solicitudes iguales pueden pasar a la vez la comprobación previa; la segunda llega aquí y choca con
+     * {@code uk_matricula} (espera a que la primera confirme). El flush la detecta dentro del servicio para
+     * responder como a cualquier duplicado en lugar de fallar al confirmar.
+     */
+    private Matricula insertar(Matricula entity) {
+        try {
+            return matriculaRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            if (esDuplicado(ex)) {
+                throw new BadRequestException(YA_MATRICULADO);
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean esDuplicado(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violacion
+                && Matricula.UK_ESTUDIANTE_SECCION.equals(violacion.getConstraintName());
+    }
+
+    private void reservarVacante(Seccion seccion) {
+        if (seccionRepository.reservarVacantes(seccion.getId(), 1) == 0) {
+            throw new BadRequestException("La sección " + seccion.getCodigo() + " no tiene vacantes disponibles");
+        }
+        ocupacionService.ajustarInscritos(seccion.getId(), 1);
+    }
+
+    private void liberarVacante(Long seccionId) {
+        if (seccionRepository.liberarVacante(seccionId) == 1) {
+            ocupacionService.ajustarInscritos(seccionId, -1);
+        }
+    }
+
+    private int reservarVacantes(Long seccionId, int solicitadas) {
+        while (true) {
+            Integer disponibles = seccionRepository.contarVacantesDisponibles(seccionId);
+            int otorgadas = Math.min(solicitadas, disponibles != null ? Math.max(disponibles, 0) : 0);
+            if (otorgadas == 0) {
+                return 0;
+            }
+            if (seccionRepository.reservarVacantes(seccionId, otorgadas) == 1) {
+                ocupacionService.ajustarInscritos(seccionId, otorgadas);
+                return otorgadas;
+            }
+        }
+    }
+
+    private MatriculaBatchItemResponseDto rechazada(int indice, MatriculaRequestDto request, String mensaje) {
+        Long estudianteId = request != null ? request.estudianteId() : null;
+        Long seccionId = request != null ? request.seccionId() : null;
+        return new MatriculaBatchItemResponseDto(indice, estudianteId, seccionId, null, false, mensaje);
+    }
 }
@@ -0,0 +1,103 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
+import com.matricula_universitaria.repository.SeccionRepository;
+import com.matricula_universitaria.service.OcupacionService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria seccionId → ocupación. Las lecturas son un {@code get} sin bloqueo sobre
+ * valores inmutables; las escrituras se aplican solo cuando la transacción que las origina confirma.
+ * Se carga al iniciar y se resincroniza periódicamente con {@code seccion.inscritos}, que es la fuente de verdad.
+ * Los cambios confirmados durante una resincronización se repiten sobre las filas leídas antes de sustituir el
+ * índice, igual que en la reconstrucción del índice de búsqueda, para que una lectura anterior no los pise.
+ * El catálogo de secciones en caché no incluye la ocupación, así que una matrícula no lo invalida.
+ */
+@Service
+public class OcupacionServiceImpl implements OcupacionService {
+
+    private final SeccionRepository seccionRepository;
+    private final Object recarga = new Object();
+    private volatile Map<Long, OcupacionSeccionResponseDto> ocupaciones = new ConcurrentHashMap<>();
+    private List<Consumer<Map<Long, OcupacionSeccionResponseDto>>> pendientes;
+
+    public OcupacionServiceImpl(SeccionRepository seccionRepository) {
+        this.seccionRepository = seccionRepository;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${matricula.ocupacion.resync-ms:60000}",
+            initialDelayString = "${matricula.ocupacion.resync-ms:60000}")
+    @Override
+    public void recargar() {
+        synchronized (recarga) {
+            synchronized (this) {
+                pendientes = new ArrayList<>();
+            }
+            Map<Long, OcupacionSeccionResponseDto> cargadas = new ConcurrentHashMap<>();
+            try {
+                for (Object[] fila : seccionRepository.findOcupaciones()) {
+                    Long seccionId = ((Number) fila[0]).longValue();
+                    cargadas.put(seccionId, OcupacionSeccionResponseDto.of(
+                            seccionId, ((Number) fila[1]).intValue(), ((Number) fila[2]).intValue()));
+                }
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    pendientes = null;
+                }
+                throw ex;
+            }
+            synchronized (this) {
+                pendientes.forEach(cambio -> cambio.accept(cargadas));
+                pendientes = null;
+                ocupaciones = cargadas;
+            }
+        }
+    }
+
+    @Override
+    public Optional<OcupacionSeccionResponseDto> buscar(Long seccionId) {
+        return Optional.ofNullable(ocupaciones.get(seccionId));
+    }
+
+    @Override
+    public List<OcupacionSeccionResponseDto> listar() {
+        return ocupaciones.values().stream()
+                .sorted(Comparator.comparing(OcupacionSeccionResponseDto::seccionId))
+                .toList();
+    }
+
+    @Override
+    public void ajustarInscritos(Long seccionId, int delta) {
+        Transacciones.alConfirmar(() -> aplicar(indice -> indice.computeIfPresent(seccionId, (id, actual) ->
+                OcupacionSeccionResponseDto.of(id, Math.max(actual.inscritos() + delta, 0), actual.capacidadMaxima()))));
+    }
+
+    @Override
+    public void registrarSeccion(Long seccionId, int capacidadMaxima) {
+        Transacciones.alConfirmar(() -> aplicar(indice -> indice.compute(seccionId, (id, actual) ->
+                OcupacionSeccionResponseDto.of(id, actual != null ? actual.inscritos() : 0, capacidadMaxima))));
+    }
+
+    @Override
+    public void eliminarSeccion(Long seccionId) {
+        Transacciones.alConfirmar(() -> aplicar(indice -> indice.remove(seccionId)));
+    }
+
+    private synchronized void aplicar(Consumer<Map<Long, OcupacionSeccionResponseDto>> cambio) {
+        cambio.accept(ocupaciones);
+        if (pendientes != null) {
+            pendientes.add(cambio);
+        }
+    }
+}
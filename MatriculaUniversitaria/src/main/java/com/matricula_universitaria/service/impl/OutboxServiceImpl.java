@@ -0,0 +1,154 @@
+package com.matricula_universitaria.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matricula_universitaria.config.RabbitMQConfig;
+import com.matricula_universitaria.dto.MatriculaNotificationDto;
+import com.matricula_universitaria.entity.EventoOutbox;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.repository.EventoOutboxRepository;
+import com.matricula_universitaria.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Outbox de eventos hacia RabbitMQ. Los servicios de escritura insertan el evento en {@code evento_outbox} dentro
+ * de su propia transacción, sin tocar el broker. El relay drena la tabla en lotes: publica cada lote, espera las
+ * confirmaciones del broker y solo entonces borra las filas, así que la entrega es al menos una vez (el
+ * {@code messageId} identifica el evento). Si el broker falla, los reintentos se espacian hasta
+ * {@link #PAUSA_MAXIMA_MS}.
+ */
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final long PAUSA_MAXIMA_MS = 30_000;
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean relayHabilitado;
+    private final int tamanoLote;
+    private final long intervaloMs;
+    private final long esperaConfirmacionMs;
+    private final Counter publicados;
+    private final Counter fallos;
+    private final Timer lotes;
+    private long pausaMs;
+    private long reanudarEn;
+
+    public OutboxServiceImpl(EventoOutboxRepository eventoOutboxRepository,
+                             RabbitTemplate rabbitTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${matricula.outbox.relay-habilitado:true}") boolean relayHabilitado,
+                             @Value("${matricula.outbox.tamano-lote:200}") int tamanoLote,
+                             @Value("${matricula.outbox.intervalo-ms:500}") long intervaloMs,
+                             @Value("${matricula.outbox.espera-confirmacion-ms:5000}") long esperaConfirmacionMs) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.relayHabilitado = relayHabilitado;
+        this.tamanoLote = tamanoLote;
+        this.intervaloMs = intervaloMs;
+        this.esperaConfirmacionMs = esperaConfirmacionMs;
+        this.publicados = Counter.builder("matricula.outbox.publicados")
+                .description("Eventos del outbox confirmados por RabbitMQ")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("matricula.outbox.fallos")
+                .description("Lotes del outbox que no se pudieron publicar")
+                .register(meterRegistry);
+        this.lotes = Timer.builder("matricula.outbox.lote")
+                .description("Tiempo de publicar y confirmar un lote del outbox")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void registrarMatriculaCreada(Matricula matricula, String emailDestino) {
+        MatriculaNotificationDto evento = new MatriculaNotificationDto(matricula.getEstudiante().getId(),
+                matricula.getSeccion().getId(), matricula.getEstado(), emailDestino);
+        try {
+            eventoOutboxRepository.save(EventoOutbox.builder()
+                    .routingKey(RabbitMQConfig.MATRICULA_ROUTING_KEY)
+                    .agregadoId(matricula.getId())
+                    .payload(objectMapper.writeValueAsString(evento))
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${matricula.outbox.intervalo-ms:500}",
+            initialDelayString = "${matricula.outbox.intervalo-ms:500}")
+    public void relay() {
+        if (!relayHabilitado || System.currentTimeMillis() < reanudarEn) {
+            return;
+        }
+        try {
+            publicarPendientes();
+            pausaMs = 0;
+        } catch (RuntimeException ex) {
+            fallos.increment();
+            pausaMs = pausaMs == 0 ? intervaloMs : Math.min(pausaMs * 2, PAUSA_MAXIMA_MS);
+            reanudarEn = System.currentTimeMillis() + pausaMs;
+            log.warn("No se pudo publicar el outbox en RabbitMQ, se reintenta en {} ms: {}", pausaMs, ex.toString());
+        }
+    }
+
+    /** Publica lotes hasta vaciar la tabla; si el broker falla, el lote en curso se revierte y queda pendiente. */
+    @Override
+    public int publicarPendientes() {
+        int total = 0;
+        int publicadosLote;
+        do {
+            publicadosLote = transactionTemplate.execute(estado -> publicarLote());
+            total += publicadosLote;
+        } while (publicadosLote == tamanoLote);
+        return total;
+    }
+
+    private int publicarLote() {
+        List<EventoOutbox> lote = eventoOutboxRepository.findLoteParaPublicar(tamanoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        lotes.record(() -> rabbitTemplate.invoke(operaciones -> {
+            for (EventoOutbox evento : lote) {
+                operaciones.send(RabbitMQConfig.NOTIFICATIONS_EXCHANGE, evento.getRoutingKey(), mensaje(evento));
+            }
+            operaciones.waitForConfirmsOrDie(esperaConfirmacionMs);
+            return null;
+        }));
+        eventoOutboxRepository.deleteAllByIdInBatch(lote.stream().map(EventoOutbox::getId).toList());
+        publicados.increment(lote.size());
+        return lote.size();
+    }
+
+    private static Message mensaje(EventoOutbox evento) {
+        return MessageBuilder.withBody(evento.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId("evento-outbox-" + evento.getId())
+                .setTimestamp(Timestamp.valueOf(evento.getFechaRegistro()))
+                .setHeader("matriculaId", evento.getAgregadoId())
+                .build();
+    }
+}
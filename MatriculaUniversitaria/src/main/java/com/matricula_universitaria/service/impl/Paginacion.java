@@ -0,0 +1,39 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.dto.PaginaCursorDto;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+
+final class Paginacion {
+
+    static final int LIMITE_POR_DEFECTO = 100;
+    static final int LIMITE_MAXIMO = 1000;
+
+    private Paginacion() {
+    }
+
+    static long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    static int limite(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limit, LIMITE_MAXIMO);
+    }
+
+    static Limit consulta(int limite) {
+        return Limit.of(limite + 1);
+    }
+
+    static <E, D> PaginaCursorDto<D> pagina(List<E> filas, int limite,
+                                            Function<E, Long> id, Function<E, D> mapper) {
+        boolean hayMas = filas.size() > limite;
+        List<E> visibles = hayMas ? filas.subList(0, limite) : filas;
+        Long siguiente = hayMas ? id.apply(visibles.get(visibles.size() - 1)) : null;
+        return new PaginaCursorDto<>(visibles.stream().map(mapper).toList(), siguiente);
+    }
+}
@@ -1,17 +1,25 @@
 package com.matricula_universitaria.service.impl;
 
+import com.matricula_universitaria.dto.BusquedaResponseDto;
 import com.matricula_universitaria.dto.ProfesorRequestDto;
 import com.matricula_universitaria.dto.ProfesorResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 import com.matricula_universitaria.entity.Profesor;
 import com.matricula_universitaria.exceptions.BadRequestException;
 import com.matricula_universitaria.exceptions.ResourceNotFoundException;
 import com.matricula_universitaria.mapper.ProfesorMapper;
 import com.matricula_universitaria.repository.ProfesorRepository;
+import com.matricula_universitaria.repository.ScrollRepository;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
+import com.matricula_universitaria.service.BusquedaService;
 import com.matricula_universitaria.service.ProfesorService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -19,11 +27,20 @@ public class ProfesorServiceImpl implements ProfesorService {
 
     private final ProfesorRepository profesorRepository;
     private final ProfesorMapper profesorMapper;
+    private final ScrollRepository scrollRepository;
+    private final BusquedaService busquedaService;
+    private final CatalogoCacheService catalogoCacheService;
 
     public ProfesorServiceImpl(ProfesorRepository profesorRepository,
-                               ProfesorMapper profesorMapper) {
+                               ProfesorMapper profesorMapper,
+                               ScrollRepository scrollRepository,
+                               BusquedaService busquedaService,
+                               CatalogoCacheService catalogoCacheService) {
         this.profesorRepository = profesorRepository;
         this.profesorMapper = profesorMapper;
+        this.scrollRepository = scrollRepository;
+        this.busquedaService = busquedaService;
+        this.catalogoCacheService = catalogoCacheService;
     }
 
     @Override
@@ -35,6 +52,8 @@ public class ProfesorServiceImpl implements ProfesorService {
 
         Profesor entity = profesorMapper.toEntity(request);
         Profesor saved = profesorRepository.save(entity);
+        busquedaService.indexarProfesor(saved);
+        catalogoCacheService.invalidar(Catalogo.PROFESORES);
         return profesorMapper.toResponse(saved);
     }
 
@@ -54,6 +73,8 @@ public class ProfesorServiceImpl implements ProfesorService {
 
         profesorMapper.updateEntity(request, entity);
         Profesor updated = profesorRepository.save(entity);
+        busquedaService.indexarProfesor(updated);
+        catalogoCacheService.invalidar(Catalogo.PROFESORES, Catalogo.SECCIONES);
         return profesorMapper.toResponse(updated);
     }
 
@@ -62,6 +83,8 @@ public class ProfesorServiceImpl implements ProfesorService {
         Profesor entity = profesorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Profesor no encontrado con id " + id));
         profesorRepository.delete(entity);
+        busquedaService.eliminarProfesor(id);
+        catalogoCacheService.invalidar(Catalogo.PROFESORES, Catalogo.SECCIONES);
     }
 
     @Override
@@ -73,11 +96,33 @@ public class ProfesorServiceImpl implements ProfesorService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    // Lectura-escritura para leer del primario: el resultado llena la caché de consultas y la del catálogo.
+    @Transactional
     public List<ProfesorResponseDto> listarTodos() {
         return profesorMapper.toResponseList(profesorRepository.findAll());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDto<ProfesorResponseDto> listarPagina(Long after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Profesor> filas = profesorRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.cursor(after), Paginacion.consulta(limite));
+        return Paginacion.pagina(filas, limite, Profesor::getId, profesorMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recorrerTodos(Long after, Consumer<ProfesorResponseDto> consumer) {
+        scrollRepository.recorrerProfesores(Paginacion.cursor(after), e -> consumer.accept(profesorMapper.toResponse(e)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BusquedaResponseDto> buscar(String q, Integer limit) {
+        return busquedaService.buscarProfesores(q, limit);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProfesorResponseDto> buscarPorApellido(String apellido) {
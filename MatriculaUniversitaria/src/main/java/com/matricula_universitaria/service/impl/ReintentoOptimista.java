@@ -0,0 +1,105 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.exceptions.PreconditionFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una escritura sobre una entidad con {@code @Version} en su propia transacción. Si otra transacción
+ * modificó la misma fila, se repite desde la lectura tras una espera aleatoria (full jitter) que crece con cada
+ * intento. Solo se repiten las escrituras sin {@code If-Match}, que reemplazan el recurso completo: con una
+ * versión esperada el conflicto significa que el cliente partió de datos obsoletos y se responde 412.
+ */
+@Component
+class ReintentoOptimista {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxIntentos;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+
+    ReintentoOptimista(TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${matricula.optimista.max-intentos:4}") int maxIntentos,
+                       @Value("${matricula.optimista.espera-base-ms:10}") long esperaBaseMs,
+                       @Value("${matricula.optimista.espera-maxima-ms:200}") long esperaMaximaMs) {
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxIntentos = maxIntentos;
+        this.esperaBaseMs = esperaBaseMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    <T> T ejecutar(Entidad entidad, Long versionEsperada, Supplier<T> escritura) {
+        // Dentro de una transacción ajena el conflicto la deja marcada para rollback: no se puede repetir.
+        boolean reintentable = versionEsperada == null && !TransactionSynchronizationManager.isActualTransactionActive();
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> escritura.get());
+            } catch (PreconditionFailedException ex) {
+                contar("matricula.optimista.conflictos", entidad, "if-match");
+                throw ex;
+            } catch (OptimisticLockingFailureException ex) {
+                contar("matricula.optimista.conflictos", entidad, "escritura");
+                if (versionEsperada != null) {
+                    throw new PreconditionFailedException("La " + entidad.descripcion
+                            + " fue modificada por otra operación después de la versión " + versionEsperada);
+                }
+                if (!reintentable || intento >= maxIntentos) {
+                    contar("matricula.optimista.agotados", entidad, null);
+                    throw ex;
+                }
+                contar("matricula.optimista.reintentos", entidad, null);
+                esperar(intento);
+            }
+        }
+    }
+
+    /** Compara la versión leída con la de {@code If-Match}; {@code null} significa que no hay precondición. */
+    static void verificarVersion(Entidad entidad, Long id, Long versionEsperada, Long versionActual) {
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new PreconditionFailedException("La " + entidad.descripcion + " " + id + " está en la versión "
+                    + versionActual + ", no en la " + versionEsperada + " indicada en If-Match");
+        }
+    }
+
+    private void esperar(int intento) {
+        long tope = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(intento - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", ex);
+        }
+    }
+
+    private void contar(String nombre, Entidad entidad, String origen) {
+        Counter.Builder contador = Counter.builder(nombre).tag("entidad", entidad.etiqueta);
+        if (origen != null) {
+            contador.tag("origen", origen);
+        }
+        contador.register(meterRegistry).increment();
+    }
+
+    enum Entidad {
+        MATRICULA("matricula", "matrícula"),
+        SECCION("seccion", "sección");
+
+        private final String etiqueta;
+        private final String descripcion;
+
+        Entidad(String etiqueta, String descripcion) {
+            this.etiqueta = etiqueta;
+            this.descripcion = descripcion;
+        }
+    }
+}
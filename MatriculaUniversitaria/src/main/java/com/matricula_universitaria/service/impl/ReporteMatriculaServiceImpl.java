@@ -0,0 +1,282 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.dto.IngresosPorMetodoPagoResponseDto;
+import com.matricula_universitaria.dto.MatriculasPorCursoResponseDto;
+import com.matricula_universitaria.dto.ReporteMatriculasResponseDto;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.repository.MatriculaRepository;
+import com.matricula_universitaria.service.ReporteMatriculaService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Agregados de matrículas en memoria: matriculados y anulados por curso y periodo, y número de matrículas y
+ * suma de {@code costo} por periodo, método de pago y estado. Leer el reporte no consulta la base de datos y
+ * su coste depende del número de grupos, no del de matrículas.
+ * <p>
+ * Cada transacción acumula sus aportes y los aplica al confirmar. Desde {@code beforeCommit} hasta que termina
+ * retiene el lock de lectura. {@link #recalcular()} toma el de escritura solo para fijar la instantánea de una
+ * transacción {@code REPEATABLE READ} y abrir una época: los aportes que se confirman desde entonces no están en
+ * esa instantánea y se acumulan aparte. El {@code GROUP BY} corre sin lock y, al terminar, se le suman esos
+ * aportes antes de sustituir los agregados.
+ */
+@Service
+public class ReporteMatriculaServiceImpl implements ReporteMatriculaService {
+
+    private static final Comparator<MatriculasPorCursoResponseDto> ORDEN_CURSOS = Comparator
+            .comparing(MatriculasPorCursoResponseDto::periodoAcademico, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(MatriculasPorCursoResponseDto::cursoId);
+    private static final Comparator<IngresosPorMetodoPagoResponseDto> ORDEN_INGRESOS = Comparator
+            .comparing(IngresosPorMetodoPagoResponseDto::metodoPago, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(IngresosPorMetodoPagoResponseDto::estado);
+
+    // La columna matricula.costo es NUMERIC(10, 2).
+    private static final int ESCALA_COSTO = 2;
+
+    private final MatriculaRepository matriculaRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate instantanea;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock recalculo = new ReentrantLock();
+    private volatile Agregados agregados = new Agregados();
+    // Aportes confirmados desde que se fijó la instantánea del recálculo en curso; null si no hay ninguno.
+    private volatile Agregados posteriores;
+
+    public ReporteMatriculaServiceImpl(MatriculaRepository matriculaRepository,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager) {
+        this.matriculaRepository = matriculaRepository;
+        this.entityManager = entityManager;
+        this.instantanea = new TransactionTemplate(transactionManager);
+        this.instantanea.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.instantanea.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        recalcular();
+    }
+
+    @Override
+    public ReporteMatriculasResponseDto obtener(String periodoAcademico) {
+        Agregados actuales = agregados;
+        List<MatriculasPorCursoResponseDto> porCurso = actuales.porCurso.entrySet().stream()
+                .filter(e -> periodoAcademico == null || periodoAcademico.equals(e.getKey().periodoAcademico()))
+                .map(e -> new MatriculasPorCursoResponseDto(e.getKey().cursoId(), e.getKey().periodoAcademico(),
+                        e.getValue().matriculados(), e.getValue().anulados()))
+                .sorted(ORDEN_CURSOS)
+                .toList();
+        Map<MetodoEstado, Ingresos> ingresos = actuales.porMetodoPago.entrySet().stream()
+                .filter(e -> periodoAcademico == null || periodoAcademico.equals(e.getKey().periodoAcademico()))
+                .collect(Collectors.toMap(e -> new MetodoEstado(null, e.getKey().metodoPago(), e.getKey().estado()),
+                        Map.Entry::getValue, Ingresos::sumar));
+        List<IngresosPorMetodoPagoResponseDto> porMetodoPago = ingresos.entrySet().stream()
+                .map(e -> new IngresosPorMetodoPagoResponseDto(e.getKey().metodoPago(), e.getKey().estado(),
+                        e.getValue().matriculas(), e.getValue().costoTotal()))
+                .sorted(ORDEN_INGRESOS)
+                .toList();
+        return new ReporteMatriculasResponseDto(porCurso, porMetodoPago);
+    }
+
+    @Override
+    public void sumar(Matricula matricula) {
+        registrar(matricula, 1);
+    }
+
+    @Override
+    public void restar(Matricula matricula) {
+        registrar(matricula, -1);
+    }
+
+    @Override
+    public void recalcularAlConfirmar() {
+        Transacciones.alConfirmar(() -> CompletableFuture.runAsync(this::recalcular));
+    }
+
+    @Override
+    public ReporteMatriculasResponseDto recalcular() {
+        recalculo.lock();
+        try {
+            Agregados nuevos = instantanea.execute(estado -> {
+                // La conexión ya está tomada: el lock de escritura solo cubre la sentencia que fija la instantánea.
+                lock.writeLock().lock();
+                try {
+                    entityManager.createNativeQuery("SELECT 1").getSingleResult();
+                    posteriores = new Agregados();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                Agregados cargados = new Agregados();
+                for (Object[] fila : matriculaRepository.findResumen()) {
+                    Aporte aporte = new Aporte((Long) fila[0], (String) fila[1], (String) fila[2], (String) fila[3]);
+                    cargados.aplicar(aporte, ((Number) fila[4]).longValue(), (BigDecimal) fila[5]);
+                }
+                return cargados;
+            });
+            lock.writeLock().lock();
+            try {
+                nuevos.sumar(posteriores);
+                agregados = nuevos;
+                posteriores = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            posteriores = null;
+            recalculo.unlock();
+        }
+        return obtener(null);
+    }
+
+    private void registrar(Matricula matricula, int signo) {
+        Aporte aporte = new Aporte(matricula.getSeccion().getCurso().getId(),
+                matricula.getSeccion().getPeriodoAcademico(), matricula.getEstado(), matricula.getMetodoPago());
+        BigDecimal costo = (matricula.getCosto() != null ? matricula.getCosto() : BigDecimal.ZERO)
+                .setScale(ESCALA_COSTO, RoundingMode.HALF_UP);
+        if (signo < 0) {
+            costo = costo.negate();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.readLock().lock();
+            try {
+                agregados.aplicar(aporte, signo, costo);
+                Agregados enEpoca = posteriores;
+                if (enEpoca != null) {
+                    enEpoca.aplicar(aporte, signo, costo);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        Pendientes pendientes = (Pendientes) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new Pendientes();
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+            TransactionSynchronizationManager.registerSynchronization(pendientes);
+        }
+        pendientes.acumulados.aplicar(aporte, signo, costo);
+    }
+
+    private final class Pendientes implements TransactionSynchronization {
+
+        private final Agregados acumulados = new Agregados();
+        private boolean bloqueado;
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ReporteMatriculaServiceImpl.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ReporteMatriculaServiceImpl.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lock.readLock().lock();
+            bloqueado = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            agregados.sumar(acumulados);
+            Agregados enEpoca = posteriores;
+            if (enEpoca != null) {
+                enEpoca.sumar(acumulados);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ReporteMatriculaServiceImpl.this);
+            if (bloqueado) {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private record Aporte(Long cursoId, String periodoAcademico, String estado, String metodoPago) {
+    }
+
+    private record CursoPeriodo(Long cursoId, String periodoAcademico) {
+    }
+
+    private record MetodoEstado(String periodoAcademico, String metodoPago, String estado) {
+    }
+
+    private record Inscritos(long matriculados, long anulados) {
+
+        Inscritos sumar(Inscritos otro) {
+            return new Inscritos(matriculados + otro.matriculados, anulados + otro.anulados);
+        }
+
+        boolean esVacio() {
+            return matriculados == 0 && anulados == 0;
+        }
+    }
+
+    private record Ingresos(long matriculas, BigDecimal costoTotal) {
+
+        Ingresos sumar(Ingresos otro) {
+            return new Ingresos(matriculas + otro.matriculas, costoTotal.add(otro.costoTotal));
+        }
+
+        boolean esVacio() {
+            return matriculas == 0 && costoTotal.signum() == 0;
+        }
+    }
+
+    private static final class Agregados {
+
+        private final Map<CursoPeriodo, Inscritos> porCurso = new ConcurrentHashMap<>();
+        private final Map<MetodoEstado, Ingresos> porMetodoPago = new ConcurrentHashMap<>();
+
+        /** Suma {@code cantidad} matrículas con los datos de {@code aporte}; una cantidad negativa las descuenta. */
+        void aplicar(Aporte aporte, long cantidad, BigDecimal costo) {
+            boolean anulada = Matricula.ESTADO_ANULADO.equals(aporte.estado());
+            sumar(new CursoPeriodo(aporte.cursoId(), aporte.periodoAcademico()),
+                    new Inscritos(anulada ? 0 : cantidad, anulada ? cantidad : 0),
+                    new MetodoEstado(aporte.periodoAcademico(), aporte.metodoPago(), aporte.estado()),
+                    new Ingresos(cantidad, costo));
+        }
+
+        void sumar(Agregados otros) {
+            otros.porCurso.forEach((clave, inscritos) -> sumar(clave, inscritos, null, null));
+            otros.porMetodoPago.forEach((clave, ingresos) -> sumar(null, null, clave, ingresos));
+        }
+
+        private void sumar(CursoPeriodo curso, Inscritos inscritos, MetodoEstado metodo, Ingresos ingresos) {
+            if (curso != null) {
+                porCurso.merge(curso, inscritos, (actual, delta) -> {
+                    Inscritos suma = actual.sumar(delta);
+                    return suma.esVacio() ? null : suma;
+                });
+            }
+            if (metodo != null) {
+                porMetodoPago.merge(metodo, ingresos, (actual, delta) -> {
+                    Ingresos suma = actual.sumar(delta);
+                    return suma.esVacio() ? null : suma;
+                });
+            }
+        }
+    }
+}
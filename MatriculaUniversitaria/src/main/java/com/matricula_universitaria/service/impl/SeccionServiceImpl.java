@@ -2,19 +2,32 @@ package com.matricula_universitaria.service.impl;
 
 import com.matricula_universitaria.dto.SeccionRequestDto;
 import com.matricula_universitaria.dto.SeccionResponseDto;
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
+import com.matricula_universitaria.dto.PaginaCursorDto;
 import com.matricula_universitaria.entity.Curso;
 import com.matricula_universitaria.entity.Profesor;
 import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.exceptions.BadRequestException;
 import com.matricula_universitaria.exceptions.ResourceNotFoundException;
 import com.matricula_universitaria.mapper.SeccionMapper;
 import com.matricula_universitaria.repository.CursoRepository;
 import com.matricula_universitaria.repository.ProfesorRepository;
 import com.matricula_universitaria.repository.SeccionRepository;
+import com.matricula_universitaria.repository.ScrollRepository;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
+import com.matricula_universitaria.service.HorarioService;
+import com.matricula_universitaria.service.OcupacionService;
+import com.matricula_universitaria.service.ReporteMatriculaService;
 import com.matricula_universitaria.service.SeccionService;
+import com.matricula_universitaria.service.impl.ReintentoOptimista.Entidad;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -24,15 +37,33 @@ public class SeccionServiceImpl implements SeccionService {
     private final CursoRepository cursoRepository;
     private final ProfesorRepository profesorRepository;
     private final SeccionMapper seccionMapper;
+    private final ScrollRepository scrollRepository;
+    private final OcupacionService ocupacionService;
+    private final HorarioService horarioService;
+    private final ReporteMatriculaService reporteMatriculaService;
+    private final CatalogoCacheService catalogoCacheService;
+    private final ReintentoOptimista reintentoOptimista;
 
     public SeccionServiceImpl(SeccionRepository seccionRepository,
                               CursoRepository cursoRepository,
                               ProfesorRepository profesorRepository,
-                              SeccionMapper seccionMapper) {
+                              SeccionMapper seccionMapper,
+                              ScrollRepository scrollRepository,
+                              OcupacionService ocupacionService,
+                              HorarioService horarioService,
+                              ReporteMatriculaService reporteMatriculaService,
+                              CatalogoCacheService catalogoCacheService,
+                              ReintentoOptimista reintentoOptimista) {
         this.seccionRepository = seccionRepository;
         this.cursoRepository = cursoRepository;
         this.profesorRepository = profesorRepository;
         this.seccionMapper = seccionMapper;
+        this.scrollRepository = scrollRepository;
+        this.ocupacionService = ocupacionService;
+        this.horarioService = horarioService;
+        this.reporteMatriculaService = reporteMatriculaService;
+        this.catalogoCacheService = catalogoCacheService;
+        this.reintentoOptimista = reintentoOptimista;
     }
 
     @Override
@@ -44,21 +75,55 @@ public class SeccionServiceImpl implements SeccionService {
 
         Seccion entity = seccionMapper.toEntity(request, curso, profesor);
         Seccion saved = seccionRepository.save(entity);
+        ocupacionService.registrarSeccion(saved.getId(), saved.getCapacidadMaxima());
+        catalogoCacheService.invalidar(Catalogo.SECCIONES);
         return seccionMapper.toResponse(saved);
     }
 
     @Override
-    public SeccionResponseDto actualizar(Long id, SeccionRequestDto request) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public SeccionResponseDto actualizar(Long id, SeccionRequestDto request, Long versionEsperada) {
+        return reintentoOptimista.ejecutar(Entidad.SECCION, versionEsperada,
+                () -> actualizarVersion(id, request, versionEsperada));
+    }
+
+    private SeccionResponseDto actualizarVersion(Long id, SeccionRequestDto request, Long versionEsperada) {
         Seccion entity = seccionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sección no encontrada con id " + id));
+        ReintentoOptimista.verificarVersion(Entidad.SECCION, id, versionEsperada, entity.getVersion());
 
         Curso curso = cursoRepository.findById(request.cursoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con id " + request.cursoId()));
         Profesor profesor = profesorRepository.findById(request.profesorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Profesor no encontrado con id " + request.profesorId()));
 
+        // Leer inscritos y luego escribir la capacidad dejaría colarse una reserva entre ambos pasos.
+        if (seccionRepository.cambiarCapacidad(id, request.capacidadMaxima()) == 0) {
+            throw new BadRequestException("La capacidad máxima no puede ser menor a los "
+                    + seccionRepository.contarInscritos(id) + " inscritos");
+        }
+
+        String codigoAnterior = entity.getCodigo();
+        String horarioAnterior = entity.getHorario();
+        String diasAnteriores = entity.getDias();
+        String periodoAnterior = entity.getPeriodoAcademico();
+        Long cursoAnteriorId = entity.getCurso().getId();
+
         seccionMapper.updateEntity(request, entity, curso, profesor);
-        Seccion updated = seccionRepository.save(entity);
+        // El flush incrementa la versión y detecta aquí un conflicto con otra escritura.
+        Seccion updated = seccionRepository.saveAndFlush(entity);
+        ocupacionService.registrarSeccion(updated.getId(), updated.getCapacidadMaxima());
+        catalogoCacheService.invalidar(Catalogo.SECCIONES);
+        if (!Objects.equals(codigoAnterior, updated.getCodigo())
+                || !Objects.equals(horarioAnterior, updated.getHorario())
+                || !Objects.equals(diasAnteriores, updated.getDias())
+                || !Objects.equals(periodoAnterior, updated.getPeriodoAcademico())) {
+            horarioService.invalidarSeccion(id);
+        }
+        if (!Objects.equals(periodoAnterior, updated.getPeriodoAcademico())
+                || !Objects.equals(cursoAnteriorId, updated.getCurso().getId())) {
+            reporteMatriculaService.recalcularAlConfirmar();
+        }
         return seccionMapper.toResponse(updated);
     }
 
@@ -67,30 +132,62 @@ public class SeccionServiceImpl implements SeccionService {
         Seccion entity = seccionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sección no encontrada con id " + id));
         seccionRepository.delete(entity);
+        ocupacionService.eliminarSeccion(id);
+        catalogoCacheService.invalidar(Catalogo.SECCIONES);
+        horarioService.invalidarSeccion(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public SeccionResponseDto obtenerPorId(Long id) {
-        Seccion entity = seccionRepository.findById(id)
+        Seccion entity = seccionRepository.findDetalladaById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sección no encontrada con id " + id));
         return seccionMapper.toResponse(entity);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OcupacionSeccionResponseDto obtenerOcupacion(Long id) {
+        return ocupacionService.buscar(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Sección no encontrada con id " + id));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<OcupacionSeccionResponseDto> listarOcupaciones() {
+        return ocupacionService.listar();
+    }
+
+    @Override
+    // Lectura-escritura para leer del primario: el resultado llena la caché de consultas y la del catálogo.
+    @Transactional
     public List<SeccionResponseDto> listarTodos() {
-        return seccionMapper.toResponseList(seccionRepository.findAll());
+        return seccionMapper.toCatalogoList(seccionRepository.findAll());
     }
 
     @Override
     @Transactional(readOnly = true)
+    public PaginaCursorDto<SeccionResponseDto> listarPagina(Long after, Integer limit) {
+        int limite = Paginacion.limite(limit);
+        List<Seccion> filas = seccionRepository.findByIdGreaterThanOrderByIdAsc(
+                Paginacion.cursor(after), Paginacion.consulta(limite));
+        return Paginacion.pagina(filas, limite, Seccion::getId, seccionMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recorrerTodos(Long after, Consumer<SeccionResponseDto> consumer) {
+        scrollRepository.recorrerSecciones(Paginacion.cursor(after), e -> consumer.accept(seccionMapper.toResponse(e)));
+    }
+
+    @Override
+    @Transactional
     public List<SeccionResponseDto> listarPorCurso(Long cursoId) {
         return seccionMapper.toResponseList(seccionRepository.findByCursoId(cursoId));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public List<SeccionResponseDto> listarPorProfesor(Long profesorId) {
         return seccionMapper.toResponseList(seccionRepository.findByProfesorId(profesorId));
     }
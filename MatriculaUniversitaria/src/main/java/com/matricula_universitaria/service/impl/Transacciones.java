@@ -0,0 +1,50 @@
+package com.matricula_universitaria.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    static void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    /**
+     * Aplica la acción justo antes de confirmar, cuando la transacción todavía conserva sus bloqueos de fila; si
+     * después la transacción no se confirma, ejecuta {@code alRevertir}.
+     */
+    static void antesDeConfirmar(Runnable accion, Runnable alRevertir) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean aplicada;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                accion.run();
+                aplicada = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (aplicada && status != STATUS_COMMITTED) {
+                    alRevertir.run();
+                }
+            }
+        });
+    }
+}
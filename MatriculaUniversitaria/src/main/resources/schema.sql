@@ -134,6 +134,7 @@ CREATE TABLE IF NOT EXISTS seccion (
     profesor_id INTEGER NOT NULL,
     codigo VARCHAR(20) NOT NULL,
     capacidad_maxima INTEGER NOT NULL,
+    inscritos INTEGER NOT NULL DEFAULT 0,
     aula VARCHAR(50),
     horario VARCHAR(50),
     dias VARCHAR(50),
@@ -150,9 +151,16 @@ CREATE TABLE IF NOT EXISTS seccion (
         REFERENCES profesor(profesor_id) ON DELETE RESTRICT,
 
     CONSTRAINT uk_seccion_periodo UNIQUE (curso_id, codigo, periodo_academico),
-    CONSTRAINT ck_capacidad_maxima CHECK (capacidad_maxima > 0)
+    CONSTRAINT ck_capacidad_maxima CHECK (capacidad_maxima > 0),
+    CONSTRAINT ck_inscritos CHECK (inscritos >= 0)
 );
 
+-- Vacantes ocupadas: contador desnormalizado que se reserva con un UPDATE condicional
+ALTER TABLE seccion ADD COLUMN IF NOT EXISTS inscritos INTEGER NOT NULL DEFAULT 0 CHECK (inscritos >= 0);
+
+-- Bloqueo optimista (@Version): el contador inscritos se actualiza aparte y no incrementa la versión
+ALTER TABLE seccion ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 -- ===========================
 -- TABLA: matricula
 -- ===========================
@@ -178,6 +186,27 @@ CREATE TABLE IF NOT EXISTS matricula (
     CONSTRAINT ck_costo CHECK (costo >= 0)
 );
 
+-- Hibernate reserva ids en bloques de 50 (pooled) para poder agrupar los INSERT en lotes JDBC
+ALTER SEQUENCE IF EXISTS matricula_matricula_id_seq INCREMENT BY 50;
+
+-- Bloqueo optimista (@Version) para ediciones concurrentes de una matrícula
+ALTER TABLE matricula ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ===========================
+-- TABLA: evento_outbox
+-- ===========================
+-- Eventos para RabbitMQ escritos en la misma transacción que la matrícula; un relay los publica y los borra
+CREATE TABLE IF NOT EXISTS evento_outbox (
+    evento_id BIGSERIAL PRIMARY KEY,
+    routing_key VARCHAR(100) NOT NULL,
+    agregado_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    fecha_registro TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER SEQUENCE IF EXISTS evento_outbox_evento_id_seq INCREMENT BY 50;
+
+
 
 -- ===========================
 -- ÍNDICES MATRÍCULA
@@ -190,3 +219,28 @@ CREATE INDEX IF NOT EXISTS idx_seccion_curso ON seccion(curso_id);
 CREATE INDEX IF NOT EXISTS idx_seccion_profesor ON seccion(profesor_id);
 CREATE INDEX IF NOT EXISTS idx_matricula_estudiante ON matricula(estudiante_id);
 CREATE INDEX IF NOT EXISTS idx_matricula_seccion ON matricula(seccion_id);
+
+
+-- ===========================
+-- MIGRACIONES DE UNA SOLA VEZ
+-- ===========================
+-- schema.sql se ejecuta en cada arranque: una migración que no es idempotente se registra aquí y solo la
+-- aplica el primer nodo que consigue insertar su nombre.
+CREATE TABLE IF NOT EXISTS migracion_aplicada (
+    nombre VARCHAR(100) PRIMARY KEY,
+    fecha_aplicacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Carga inicial de seccion.inscritos para bases anteriores al contador. Repetirla en cada arranque competiría
+-- con las reservas de otros nodos durante un despliegue y podría dejar el contador por debajo del real.
+WITH migracion AS (
+    INSERT INTO migracion_aplicada (nombre) VALUES ('seccion_inscritos_inicial')
+    ON CONFLICT (nombre) DO NOTHING
+    RETURNING nombre
+)
+UPDATE seccion s
+SET inscritos = (
+    SELECT COUNT(*) FROM matricula m
+    WHERE m.seccion_id = s.seccion_id AND m.estado <> 'ANULADO'
+)
+WHERE EXISTS (SELECT 1 FROM migracion);
@@ -0,0 +1,169 @@
+package com.matricula_universitaria.config;
+
+import com.matricula_universitaria.repository.SeccionRepository;
+import com.matricula_universitaria.service.OcupacionService;
+import com.matricula_universitaria.service.SeccionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+
+/**
+ * Las "réplicas" son conexiones a la misma base local con otro {@code application_name}: una responde y la otra
+ * apunta a un puerto sin servidor. El retraso se simula con una tabla que sustituye a la consulta de Postgres.
+ */
+@SpringBootTest(properties = {
+        "matricula.replicas.urls=${spring.datasource.url}?ApplicationName=replica-prueba,"
+                + "jdbc:postgresql://localhost:1/matricula_db",
+        "matricula.replicas.consulta-retraso=SELECT retraso_ms FROM replica_retraso_prueba",
+        "matricula.replicas.retraso-maximo-ms=1000",
+        "matricula.replicas.espera-conexion-ms=250",
+        "matricula.replicas.verificacion-ms=3600000",
+        "matricula.replicas.vigencia-medicion-ms=2000",
+        "matricula.outbox.relay-habilitado=false"})
+@AutoConfigureMockMvc
+class EnrutadorReplicasTests {
+
+    @Autowired
+    private EnrutadorReplicas enrutadorReplicas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private SeccionService seccionService;
+
+    @Autowired
+    private OcupacionService ocupacionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_retraso_prueba (retraso_ms BIGINT NOT NULL)");
+        jdbcTemplate.update("DELETE FROM replica_retraso_prueba");
+        jdbcTemplate.update("INSERT INTO replica_retraso_prueba VALUES (0)");
+        enrutadorReplicas.verificar();
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS replica_retraso_prueba");
+    }
+
+    @Test
+    void lasTransaccionesDeSoloLecturaVanALaReplicaDisponible() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(origen(true)).isEqualTo("replica-prueba");
+        }
+        assertThat(origen(false)).isNotEqualTo("replica-prueba");
+    }
+
+    @Test
+    void conRetrasoExcesivoSeLeeDelPrimario() {
+        jdbcTemplate.update("UPDATE replica_retraso_prueba SET retraso_ms = 5000");
+        enrutadorReplicas.verificar();
+        assertThat(origen(true)).isNotEqualTo("replica-prueba");
+
+        jdbcTemplate.update("UPDATE replica_retraso_prueba SET retraso_ms = 200");
+        enrutadorReplicas.verificar();
+        assertThat(origen(true)).isEqualTo("replica-prueba");
+    }
+
+    @Test
+    void unaMedicionVencidaCuentaComoRetraso() throws Exception {
+        assertThat(origen(true)).isEqualTo("replica-prueba");
+
+        Thread.sleep(2100);
+        assertThat(origen(true)).isNotEqualTo("replica-prueba");
+
+        enrutadorReplicas.verificar();
+        assertThat(origen(true)).isEqualTo("replica-prueba");
+    }
+
+    @Test
+    void trasUnaEscrituraElClienteLeeDelPrimario() throws Exception {
+        mockMvc.perform(post("/api/matriculas").contentType("application/json").content("{}"))
+                .andExpect(cookie().exists(LecturaPropiaFilter.COOKIE));
+
+        double antes = lecturasPropias();
+        mockMvc.perform(get("/api/matriculas/0").cookie(new Cookie(LecturaPropiaFilter.COOKIE, "1")));
+        assertThat(lecturasPropias()).isGreaterThan(antes);
+
+        double despues = lecturasPropias();
+        mockMvc.perform(get("/api/matriculas/0"));
+        assertThat(lecturasPropias()).isEqualTo(despues);
+    }
+
+    @Test
+    void lasLecturasDeReplicaNoLlenanLaCacheDeConsultasYLasCargasVanAlPrimario() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long cursoId = System.nanoTime();
+
+        long puestas = estadisticas.getQueryCachePutCount();
+        double replica = lecturas("replica-1");
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        soloLectura.executeWithoutResult(estado -> seccionRepository.findByCursoId(cursoId));
+        assertThat(lecturas("replica-1")).isGreaterThan(replica);
+        assertThat(estadisticas.getQueryCachePutCount()).isEqualTo(puestas);
+
+        replica = lecturas("replica-1");
+        seccionService.listarPorCurso(cursoId);
+        seccionService.listarTodos();
+        ocupacionService.recargar();
+        assertThat(lecturas("replica-1")).isEqualTo(replica);
+        assertThat(estadisticas.getQueryCachePutCount()).isGreaterThan(puestas);
+    }
+
+    private String origen(boolean soloLectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(soloLectura);
+        return transaccion.execute(estado -> (String) entityManager
+                .createNativeQuery("SELECT current_setting('application_name')").getSingleResult());
+    }
+
+    private double lecturas(String destino) {
+        return meterRegistry.find("matricula.replicas.lecturas").tags("destino", destino).counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+    }
+
+    private double lecturasPropias() {
+        var contador = meterRegistry.find("matricula.replicas.lecturas")
+                .tags("destino", "primario", "motivo", "lectura-propia").counter();
+        return contador == null ? 0 : contador.count();
+    }
+}
@@ -0,0 +1,137 @@
+package com.matricula_universitaria.config;
+
+import com.matricula_universitaria.controller.PresupuestoConsultas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PresupuestoConsultasFilterTests {
+
+    private final ContadorConsultas contador = new ContadorConsultas();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void dentroDelPresupuestoSoloRegistraLasSentencias() throws Exception {
+        filtro("fallar").doFilter(peticion(), new MockHttpServletResponse(), endpoint("detalle", 1));
+
+        assertThat(registry.get("matricula.consultas.peticion").tag("ruta", "GET /api/prueba/{id}")
+                .summary().max()).isEqualTo(1);
+        assertThat(registry.find("matricula.consultas.excedidas").counter()).isNull();
+    }
+
+    @Test
+    void unN1SuperaElPresupuestoYFallaEnModoFallar() {
+        assertThatThrownBy(() -> filtro("fallar")
+                .doFilter(peticion(), new MockHttpServletResponse(), endpoint("detalle", 3)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("3 sentencias SQL; su presupuesto es 1");
+    }
+
+    @Test
+    void enModoFallarLaRespuestaNoLlegaAlClienteAntesDeEvaluarElConteo() throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        filtro("fallar").doFilter(peticion(), respuesta, escribiendo(endpoint("detalle", 1)));
+        assertThat(respuesta.getContentAsString()).isEqualTo("ok");
+
+        MockHttpServletResponse excedida = new MockHttpServletResponse();
+        assertThatThrownBy(() -> filtro("fallar").doFilter(peticion(), excedida, escribiendo(endpoint("detalle", 2))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(excedida.isCommitted()).isFalse();
+        assertThat(excedida.getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void cuentaLasSentenciasDeUnHiloQueContinuaElConteo() {
+        FilterChain enOtroHilo = (request, response) -> {
+            AtomicInteger conteo = contador.actual();
+            Thread hilo = Thread.ofVirtual().start(() -> {
+                contador.continuar(conteo);
+                try {
+                    endpoint("detalle", 2).doFilter(request, response);
+                } catch (IOException | ServletException ex) {
+                    throw new IllegalStateException(ex);
+                } finally {
+                    contador.terminar();
+                }
+            });
+            try {
+                hilo.join();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+
+        assertThatThrownBy(() -> filtro("fallar").doFilter(peticion(), new MockHttpServletResponse(), enOtroHilo))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 sentencias SQL; su presupuesto es 1");
+    }
+
+    @Test
+    void enModoAdvertirCuentaElExcesoYSinAnotacionUsaElPresupuestoPorDefecto() throws Exception {
+        filtro("advertir").doFilter(peticion(), new MockHttpServletResponse(), endpoint("sinPresupuesto", 3));
+
+        assertThat(registry.get("matricula.consultas.excedidas").tag("ruta", "GET /api/prueba/{id}")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fueraDeUnaPeticionNoSeCuenta() {
+        contador.inspect("select 1");
+
+        assertThat(contador.terminar()).isZero();
+    }
+
+    private PresupuestoConsultasFilter filtro(String exceso) {
+        return new PresupuestoConsultasFilter(contador, registry, 2, exceso);
+    }
+
+    private static MockHttpServletRequest peticion() {
+        return new MockHttpServletRequest("GET", "/api/prueba/7");
+    }
+
+    /** Simula el DispatcherServlet: resuelve el handler y ejecuta {@code sentencias} consultas. */
+    private FilterChain endpoint(String metodo, int sentencias) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/prueba/{id}");
+            try {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                        new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(metodo)));
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(ex);
+            }
+            for (int i = 0; i < sentencias; i++) {
+                contador.inspect("select 1");
+            }
+        };
+    }
+
+    /** Como {@code endpoint}, pero además escribe el cuerpo y lo vacía hacia el cliente. */
+    private static FilterChain escribiendo(FilterChain endpoint) {
+        return (request, response) -> {
+            endpoint.doFilter(request, response);
+            response.getWriter().write("ok");
+            response.flushBuffer();
+        };
+    }
+
+    static class Endpoints {
+
+        @PresupuestoConsultas(1)
+        public void detalle() {
+        }
+
+        public void sinPresupuesto() {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.exceptions.BadRequestException;
+import com.matricula_universitaria.service.MatriculaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Admisión con un solo permiso y una sola plaza en cola, sobre un {@link MatriculaService} simulado. */
+@SpringBootTest(properties = {"matricula.admision.concurrencia=1", "matricula.admision.capacidad-cola=1",
+        "matricula.admision.espera-maxima-ms=300"})
+@AutoConfigureMockMvc
+class AdmisionMatriculaTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MatriculaService matriculaService;
+
+    @Test
+    void conLaColaLlenaRespondeTooManyRequestsYLaEsperaVencidaTambien() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(matriculaService.crear(any())).thenAnswer(invocacion -> {
+            enCurso.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return creada(invocacion.getArgument(0));
+        });
+
+        MvcResult ejecutando = mockMvc.perform(matricula(1L)).andExpect(request().asyncStarted()).andReturn();
+        assertThat(enCurso.await(5, TimeUnit.SECONDS)).isTrue();
+        MvcResult encolada = mockMvc.perform(matricula(2L)).andExpect(request().asyncStarted()).andReturn();
+
+        MvcResult rechazada = mockMvc.perform(matricula(3L))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andReturn();
+        assertThat(Long.parseLong(rechazada.getResponse().getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+
+        // La solicitud encolada supera espera-maxima-ms antes de obtener el permiso.
+        Thread.sleep(500);
+        liberar.countDown();
+        mockMvc.perform(asyncDispatch(ejecutando)).andExpect(status().isCreated());
+        mockMvc.perform(asyncDispatch(encolada))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void unaMatriculaQueFallaDevuelveElPermiso() throws Exception {
+        when(matriculaService.crear(any()))
+                .thenThrow(new BadRequestException("La sección no tiene vacantes"))
+                .thenAnswer(invocacion -> creada(invocacion.getArgument(0)));
+
+        MvcResult fallida = mockMvc.perform(matricula(1L)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(fallida)).andExpect(status().isBadRequest());
+
+        // Con un único permiso, la siguiente solo se ejecuta si la anterior lo devolvió.
+        MvcResult siguiente = mockMvc.perform(matricula(2L)).andExpect(request().asyncStarted()).andReturn();
+        assertThat(siguiente.getAsyncResult(5000)).isNotNull();
+        mockMvc.perform(asyncDispatch(siguiente)).andExpect(status().isCreated());
+    }
+
+    private static MockHttpServletRequestBuilder matricula(Long estudianteId) {
+        return post("/api/matriculas").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estudianteId\":" + estudianteId + ",\"seccionId\":1,\"estado\":\"PENDIENTE\",\"costo\":10}");
+    }
+
+    private static MatriculaResponseDto creada(MatriculaRequestDto request) {
+        return new MatriculaResponseDto(request.estudianteId(), request.estudianteId(), null, request.seccionId(),
+                null, null, null, request.estado(), BigDecimal.TEN, null, null, 0L);
+    }
+}
@@ -0,0 +1,151 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.entity.Curso;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.entity.Profesor;
+import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.service.MatriculaService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "matricula.optimista.max-intentos=50")
+@AutoConfigureMockMvc
+class BloqueoOptimistaTests {
+
+    private static final int ESCRITORES = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Profesor profesor;
+    private Curso curso;
+    private Seccion seccion;
+    private Estudiante estudiante;
+    private Matricula matricula;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        transactionTemplate.executeWithoutResult(estado -> {
+            profesor = Profesor.builder().nombre("Ana").apellido("Torres")
+                    .dni("P" + sufijo).email(sufijo + "@prof.edu").activo(true).build();
+            entityManager.persist(profesor);
+            curso = Curso.builder().codigo("C" + sufijo).nombre("Curso " + sufijo)
+                    .creditos(4).nivelSemestre(1).activo(true).build();
+            entityManager.persist(curso);
+            seccion = Seccion.builder().curso(curso).profesor(profesor).codigo("S" + sufijo)
+                    .capacidadMaxima(40).periodoAcademico("2025-I").activo(true).build();
+            entityManager.persist(seccion);
+            estudiante = Estudiante.builder().nombre("Est").apellido("Apellido")
+                    .dni(sufijo).email(sufijo + "@est.edu")
+                    .fechaNacimiento(LocalDate.of(2000, 1, 1)).activo(true).build();
+            entityManager.persist(estudiante);
+            matricula = Matricula.builder().estudiante(estudiante).seccion(seccion)
+                    .estado(Matricula.ESTADO_ANULADO).costo(BigDecimal.TEN).build();
+            entityManager.persist(matricula);
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        transactionTemplate.executeWithoutResult(estado -> {
+            entityManager.createQuery("DELETE FROM Matricula m WHERE m.id = :id")
+                    .setParameter("id", matricula.getId()).executeUpdate();
+            entityManager.createQuery("DELETE FROM Estudiante e WHERE e.id = :id")
+                    .setParameter("id", estudiante.getId()).executeUpdate();
+            entityManager.createQuery("DELETE FROM Seccion s WHERE s.id = :id")
+                    .setParameter("id", seccion.getId()).executeUpdate();
+            entityManager.createQuery("DELETE FROM Curso c WHERE c.id = :id")
+                    .setParameter("id", curso.getId()).executeUpdate();
+            entityManager.createQuery("DELETE FROM Profesor p WHERE p.id = :id")
+                    .setParameter("id", profesor.getId()).executeUpdate();
+        });
+    }
+
+    @Test
+    void ifMatchObsoletoRespondePreconditionFailed() throws Exception {
+        String url = "/api/matriculas/" + matricula.getId();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo(11)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo(12)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/secciones/" + seccion.getId()).header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cursoId\":" + curso.getId() + ",\"profesorId\":" + profesor.getId()
+                                + ",\"codigo\":\"" + seccion.getCodigo() + "\",\"capacidadMaxima\":30,"
+                                + "\"periodoAcademico\":\"2025-I\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void escriturasConcurrentesSinIfMatchSeReintentanYNingunaSePierde() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> escrituras = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(ESCRITORES)) {
+            for (int i = 0; i < ESCRITORES; i++) {
+                int costo = 20 + i;
+                escrituras.add(executor.submit(() -> {
+                    salida.await();
+                    return matriculaService.actualizar(matricula.getId(), new MatriculaRequestDto(
+                            estudiante.getId(), seccion.getId(), null, Matricula.ESTADO_ANULADO,
+                            BigDecimal.valueOf(costo), null), null);
+                }));
+            }
+            salida.countDown();
+            for (Future<?> escritura : escrituras) {
+                escritura.get();
+            }
+        }
+
+        assertThat(matriculaService.obtenerPorId(matricula.getId()).version()).isEqualTo(ESCRITORES);
+    }
+
+    private String cuerpo(int costo) {
+        return "{\"estudianteId\":" + estudiante.getId() + ",\"seccionId\":" + seccion.getId()
+                + ",\"estado\":\"ANULADO\",\"costo\":" + costo + "}";
+    }
+}
@@ -0,0 +1,121 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.service.CatalogoCacheService;
+import com.matricula_universitaria.service.CatalogoCacheService.Catalogo;
+import com.matricula_universitaria.service.MatriculaService;
+import com.matricula_universitaria.service.OcupacionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogoCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogoCacheService catalogoCacheService;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private OcupacionService ocupacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void respondeNotModifiedHastaQueCambiaLaVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/cursos?unpaged=true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/cursos?unpaged=true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        catalogoCacheService.invalidar(Catalogo.CURSOS);
+        String nueva = mockMvc.perform(get("/api/cursos?unpaged=true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(nueva).isNotEqualTo(etag);
+    }
+
+    @Test
+    void sirveLaVersionComprimidaSiElClienteAceptaGzip() throws Exception {
+        MockHttpServletResponse plano = mockMvc.perform(get("/api/profesores?unpaged=true"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse comprimido = mockMvc.perform(get("/api/profesores?unpaged=true")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        assertThat(comprimido.getHeader(HttpHeaders.ETAG)).isNotEqualTo(plano.getHeader(HttpHeaders.ETAG));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido.getContentAsByteArray()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(plano.getContentAsByteArray());
+        }
+    }
+
+    @Test
+    void unaMatriculaNoInvalidaElCatalogoDeSeccionesYLaOcupacionSeSirveAparte() throws Exception {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        Long profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Cache', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        Long cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso de caché', 4, 1) RETURNING curso_id", Long.class, "K" + sufijo);
+        Long seccionId = jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                + "capacidad_maxima, periodo_academico) VALUES (?, ?, 'S1', 30, '2026-I') RETURNING seccion_id",
+                Long.class, cursoId, profesorId);
+        Long estudianteId = jdbcTemplate.queryForObject("INSERT INTO estudiante (nombre, apellido, dni, email, "
+                + "fecha_nacimiento) VALUES ('Est', 'Cache', ?, ?, ?) RETURNING estudiante_id", Long.class,
+                "E" + sufijo, sufijo + "@est.edu", LocalDate.of(2004, 1, 1));
+        try {
+            ocupacionService.recargar();
+            catalogoCacheService.invalidar(Catalogo.SECCIONES);
+            String etag = mockMvc.perform(get("/api/secciones?unpaged=true"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            matriculaService.crear(new MatriculaRequestDto(estudianteId, seccionId, null, "PENDIENTE",
+                    BigDecimal.TEN, null));
+
+            mockMvc.perform(get("/api/secciones?unpaged=true").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/secciones/ocupacion"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.seccionId == " + seccionId + ")].inscritos").value(1));
+        } finally {
+            jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                    + "(SELECT matricula_id FROM matricula WHERE seccion_id = ?)", seccionId);
+            jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id = ?", seccionId);
+            jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id = ?", seccionId);
+            jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+            jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+            jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id = ?", estudianteId);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.exceptions.BadRequestException;
+import com.matricula_universitaria.service.MatriculaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Matrículas simultáneas de un mismo estudiante en secciones con el mismo horario: solo una puede entrar. */
+@SpringBootTest
+class CruceHorarioTests {
+
+    private static final int SECCIONES = 6;
+    private static final int RONDAS = 5;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long profesorId;
+    private Long cursoId;
+    private final List<Long> secciones = new ArrayList<>();
+    private final List<Long> estudiantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Cruce', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso de cruces', 4, 1) RETURNING curso_id", Long.class, "H" + sufijo);
+        for (int i = 0; i < SECCIONES; i++) {
+            secciones.add(jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                    + "capacidad_maxima, horario, dias, periodo_academico) "
+                    + "VALUES (?, ?, ?, 40, '08:00-10:00', 'Lunes-Miércoles', '2026-I') RETURNING seccion_id",
+                    Long.class, cursoId, profesorId, "S" + i));
+        }
+        for (int i = 0; i < RONDAS; i++) {
+            estudiantes.add(jdbcTemplate.queryForObject("INSERT INTO estudiante (nombre, apellido, dni, email, "
+                    + "fecha_nacimiento) VALUES ('Est', 'Cruce', ?, ?, ?) RETURNING estudiante_id", Long.class,
+                    sufijo + "-" + i, "e" + i + "." + sufijo + "@est.edu", LocalDate.of(2004, 1, 1)));
+        }
+    }
+
+    @AfterEach
+    void limpiar() {
+        String enSecciones = secciones.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                + "(SELECT matricula_id FROM matricula WHERE seccion_id IN (" + enSecciones + "))");
+        jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id IN (" + enSecciones + ")");
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id IN (" + enSecciones + ")");
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+        jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id IN ("
+                + estudiantes.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")");
+    }
+
+    @Test
+    void matriculasSimultaneasQueSeCruzanNoEntranAmbas() throws Exception {
+        for (Long estudianteId : estudiantes) {
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Future<?>> solicitudes = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(SECCIONES)) {
+                for (Long seccionId : secciones) {
+                    solicitudes.add(executor.submit(() -> {
+                        salida.await();
+                        return matriculaService.crear(new MatriculaRequestDto(estudianteId, seccionId, null,
+                                "PENDIENTE", BigDecimal.TEN, null));
+                    }));
+                }
+                salida.countDown();
+            }
+
+            int aceptadas = 0;
+            for (Future<?> solicitud : solicitudes) {
+                try {
+                    solicitud.get();
+                    aceptadas++;
+                } catch (ExecutionException ex) {
+                    assertThat(ex.getCause()).isInstanceOf(BadRequestException.class).hasMessageContaining("se cruza");
+                }
+            }
+            assertThat(aceptadas).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM matricula WHERE estudiante_id = ?",
+                    Integer.class, estudianteId)).isEqualTo(1);
+        }
+    }
+}
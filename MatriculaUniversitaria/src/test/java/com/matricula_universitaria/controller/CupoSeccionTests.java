@@ -0,0 +1,168 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.dto.SeccionRequestDto;
+import com.matricula_universitaria.entity.Curso;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Profesor;
+import com.matricula_universitaria.entity.Seccion;
+import com.matricula_universitaria.exceptions.BadRequestException;
+import com.matricula_universitaria.repository.SeccionRepository;
+import com.matricula_universitaria.service.MatriculaService;
+import com.matricula_universitaria.service.SeccionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Muchas matrículas a la vez sobre una sección con pocas vacantes: nunca se supera la capacidad. */
+@SpringBootTest
+class CupoSeccionTests {
+
+    private static final int CAPACIDAD = 5;
+    private static final int SOLICITANTES = 32;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private SeccionService seccionService;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Profesor profesor;
+    private Curso curso;
+    private Seccion seccion;
+    private final List<Estudiante> estudiantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        transactionTemplate.executeWithoutResult(estado -> {
+            profesor = Profesor.builder().nombre("Ana").apellido("Torres")
+                    .dni("P" + sufijo).email(sufijo + "@prof.edu").activo(true).build();
+            entityManager.persist(profesor);
+            curso = Curso.builder().codigo("C" + sufijo).nombre("Curso " + sufijo)
+                    .creditos(4).nivelSemestre(1).activo(true).build();
+            entityManager.persist(curso);
+            seccion = Seccion.builder().curso(curso).profesor(profesor).codigo("S" + sufijo)
+                    .capacidadMaxima(CAPACIDAD).periodoAcademico("2025-I").activo(true).build();
+            entityManager.persist(seccion);
+            for (int i = 0; i < SOLICITANTES; i++) {
+                Estudiante estudiante = Estudiante.builder().nombre("Est").apellido("Apellido")
+                        .dni(sufijo + "-" + i).email(i + "." + sufijo + "@est.edu")
+                        .fechaNacimiento(LocalDate.of(2000, 1, 1)).activo(true).build();
+                entityManager.persist(estudiante);
+                estudiantes.add(estudiante);
+            }
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                + "(SELECT matricula_id FROM matricula WHERE seccion_id = ?)", seccion.getId());
+        jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id = ?", seccion.getId());
+        for (Estudiante estudiante : estudiantes) {
+            jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id = ?", estudiante.getId());
+        }
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id = ?", seccion.getId());
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", curso.getId());
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesor.getId());
+    }
+
+    @Test
+    void matriculasConcurrentesNoSuperanLaCapacidad() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> solicitudes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(SOLICITANTES)) {
+            for (Estudiante estudiante : estudiantes) {
+                solicitudes.add(executor.submit(() -> {
+                    salida.await();
+                    return matriculaService.crear(new MatriculaRequestDto(estudiante.getId(), seccion.getId(),
+                            null, "PENDIENTE", BigDecimal.TEN, null));
+                }));
+            }
+            salida.countDown();
+        }
+
+        int aceptadas = 0;
+        for (Future<?> solicitud : solicitudes) {
+            try {
+                solicitud.get();
+                aceptadas++;
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(BadRequestException.class)
+                        .hasMessageContaining("no tiene vacantes");
+            }
+        }
+
+        assertThat(aceptadas).isEqualTo(CAPACIDAD);
+        assertThat(jdbcTemplate.queryForObject("SELECT inscritos FROM seccion WHERE seccion_id = ?",
+                Integer.class, seccion.getId())).isEqualTo(CAPACIDAD);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM matricula WHERE seccion_id = ?",
+                Integer.class, seccion.getId())).isEqualTo(CAPACIDAD);
+    }
+
+    @Test
+    void bajarLaCapacidadNoDejaFueraUnaReservaConcurrente() throws Exception {
+        jdbcTemplate.update("UPDATE seccion SET inscritos = 2 WHERE seccion_id = ?", seccion.getId());
+        CountDownLatch reservada = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            // Una matrícula reserva la tercera vacante y retiene el bloqueo de la fila hasta que se le indica.
+            Future<?> reserva = executor.submit(() -> transactionTemplate.executeWithoutResult(estado -> {
+                seccionRepository.reservarVacantes(seccion.getId(), 1);
+                reservada.countDown();
+                try {
+                    confirmar.await();
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+            reservada.await();
+
+            Future<?> cambio = executor.submit(() -> seccionService.actualizar(
+                    seccion.getId(), new SeccionRequestDto(curso.getId(), profesor.getId(), seccion.getCodigo(), 2,
+                            null, null, null, seccion.getPeriodoAcademico(), null, null, true), null));
+            Thread.sleep(300);
+            confirmar.countDown();
+            reserva.get(10, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> cambio.get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("3 inscritos");
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT capacidad_maxima FROM seccion WHERE seccion_id = ?",
+                Integer.class, seccion.getId())).isEqualTo(CAPACIDAD);
+    }
+}
@@ -0,0 +1,120 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.entity.Curso;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.entity.Matricula;
+import com.matricula_universitaria.entity.Profesor;
+import com.matricula_universitaria.entity.Seccion;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "matricula.outbox.relay-habilitado=false"})
+@AutoConfigureMockMvc
+@Transactional
+class EndpointQueryCountTests {
+
+    private static final int ESTUDIANTES = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Curso curso;
+    private Profesor profesor;
+    private Seccion seccion;
+    private Estudiante estudiante;
+    private Matricula matricula;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+
+        profesor = Profesor.builder().nombre("Ana").apellido("Torres")
+                .dni("P" + sufijo).email(sufijo + "@prof.edu").activo(true).build();
+        entityManager.persist(profesor);
+        curso = Curso.builder().codigo("C" + sufijo).nombre("Curso " + sufijo)
+                .creditos(4).nivelSemestre(1).activo(true).build();
+        entityManager.persist(curso);
+
+        List<Seccion> secciones = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Seccion s = Seccion.builder().curso(curso).profesor(profesor).codigo("S" + i)
+                    .capacidadMaxima(40).periodoAcademico("2025-I").activo(true).build();
+            entityManager.persist(s);
+            secciones.add(s);
+        }
+        seccion = secciones.get(0);
+
+        for (int i = 0; i < ESTUDIANTES; i++) {
+            Estudiante e = Estudiante.builder().nombre("Est" + i).apellido("Apellido" + i)
+                    .dni(sufijo + i).email(sufijo + i + "@est.edu")
+                    .fechaNacimiento(LocalDate.of(2000, 1, 1)).activo(true).build();
+            entityManager.persist(e);
+            for (Seccion s : secciones) {
+                Matricula m = Matricula.builder().estudiante(e).seccion(s)
+                        .estado("PENDIENTE").costo(BigDecimal.TEN).build();
+                entityManager.persist(m);
+                if (matricula == null) {
+                    matricula = m;
+                }
+            }
+            if (estudiante == null) {
+                estudiante = e;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listarMatriculasUsaUnaSolaConsulta() throws Exception {
+        assertStatements("/api/matriculas?unpaged=true", 1);
+        assertStatements("/api/matriculas?limit=50", 1);
+        assertStatements("/api/matriculas?estudianteId=" + estudiante.getId(), 1);
+        assertStatements("/api/matriculas?seccionId=" + seccion.getId(), 1);
+        assertStatements("/api/matriculas/" + matricula.getId(), 1);
+    }
+
+    @Test
+    void listarSeccionesUsaUnaSolaConsulta() throws Exception {
+        // El listado completo sale de la caché de catálogos: una vez construida no consulta la base.
+        mockMvc.perform(get("/api/secciones?unpaged=true")).andExpect(status().isOk());
+        assertStatements("/api/secciones?unpaged=true", 0);
+        assertStatements("/api/secciones?limit=50", 1);
+        assertStatements("/api/secciones?cursoId=" + curso.getId(), 1);
+        assertStatements("/api/secciones?profesorId=" + profesor.getId(), 1);
+        assertStatements("/api/secciones/" + seccion.getId(), 1);
+    }
+
+    private void assertStatements(String url, long esperadas) throws Exception {
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount())
+                .as("sentencias SQL en GET %s", url)
+                .isEqualTo(esperadas);
+    }
+}
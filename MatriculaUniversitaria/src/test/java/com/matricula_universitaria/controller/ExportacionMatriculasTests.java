@@ -0,0 +1,123 @@
+package com.matricula_universitaria.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Exportación CSV de las matrículas de un periodo, en claro y comprimida. */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportacionMatriculasTests {
+
+    private static final String CABECERA = "id,estudianteId,estudianteNombreCompleto,seccionId,seccionCodigo,"
+            + "cursoCodigo,fechaMatricula,estado,costo,metodoPago,fechaRegistro";
+    private static final String METODO_PAGO = "Tarjeta, \"Visa\"\nCuotas";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String periodo;
+    private Long profesorId;
+    private Long cursoId;
+    private Long seccionId;
+    private Long otraSeccionId;
+    private Long estudianteId;
+    private Long matriculaId;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        periodo = "E" + sufijo;
+        profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Export', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso exportado', 4, 1) RETURNING curso_id", Long.class, "X" + sufijo);
+        seccionId = jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                + "capacidad_maxima, periodo_academico) VALUES (?, ?, 'S1', 30, ?) RETURNING seccion_id",
+                Long.class, cursoId, profesorId, periodo);
+        otraSeccionId = jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                + "capacidad_maxima, periodo_academico) VALUES (?, ?, 'S1', 30, ?) RETURNING seccion_id",
+                Long.class, cursoId, profesorId, "O" + sufijo);
+        estudianteId = jdbcTemplate.queryForObject("INSERT INTO estudiante (nombre, apellido, dni, email, "
+                + "fecha_nacimiento) VALUES ('Rosa', 'Condori', ?, ?, ?) RETURNING estudiante_id", Long.class,
+                sufijo, sufijo + "@est.edu", LocalDate.of(2004, 1, 1));
+        matriculaId = jdbcTemplate.queryForObject("INSERT INTO matricula (estudiante_id, seccion_id, fecha_matricula, "
+                + "estado, costo, metodo_pago) VALUES (?, ?, ?, 'PAGADO', 150.50, ?) RETURNING matricula_id",
+                Long.class, estudianteId, seccionId, LocalDate.of(2026, 3, 2), METODO_PAGO);
+        // Misma estudiante en otro periodo: el filtro debe dejarla fuera.
+        jdbcTemplate.update("INSERT INTO matricula (estudiante_id, seccion_id, estado, costo) "
+                + "VALUES (?, ?, 'PENDIENTE', 10)", estudianteId, otraSeccionId);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM matricula WHERE estudiante_id = ?", estudianteId);
+        jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id = ?", estudianteId);
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id IN (?, ?)", seccionId, otraSeccionId);
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+    }
+
+    @Test
+    void elCsvTraeLaCabeceraYEntrecomillaLosCamposEspeciales() throws Exception {
+        MockHttpServletResponse respuesta = exportar(get("/api/matriculas/export").param("periodo", periodo));
+
+        assertThat(respuesta.getContentType()).isEqualTo(ListadoResponses.TEXT_CSV.toString());
+        assertThat(respuesta.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("matriculas-" + periodo + ".csv\"");
+        assertCsv(respuesta.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void conGzipElCuerpoEsElMismoCsvComprimido() throws Exception {
+        MockHttpServletResponse respuesta = exportar(get("/api/matriculas/export")
+                .param("periodo", periodo).param("gzip", "true"));
+
+        // Se descarga como archivo .csv.gz, no como codificación de transporte que el cliente deshaga solo.
+        assertThat(respuesta.getContentType()).isEqualTo(ListadoResponses.APPLICATION_GZIP.toString());
+        assertThat(respuesta.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(respuesta.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("matriculas-" + periodo + ".csv.gz\"");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(respuesta.getContentAsByteArray()))) {
+            assertCsv(new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private MockHttpServletResponse exportar(MockHttpServletRequestBuilder peticion) throws Exception {
+        MvcResult resultado = mockMvc.perform(peticion).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private void assertCsv(String csv) {
+        String[] lineas = csv.split("\r\n", -1);
+        assertThat(lineas).hasSize(3);
+        assertThat(lineas[0]).isEqualTo(CABECERA);
+        assertThat(lineas[1]).startsWith(matriculaId + "," + estudianteId + ",Rosa Condori," + seccionId + ",S1,")
+                .contains(",2026-03-02,PAGADO,150.50,\"Tarjeta, \"\"Visa\"\"\nCuotas\",");
+        assertThat(lineas[2]).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.EstudianteImportItemResponseDto;
+import com.matricula_universitaria.dto.EstudianteImportResponseDto;
+import com.matricula_universitaria.service.EstudianteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Importación CSV: las filas se validan antes de cargar y los valores de {@code activo} desconocidos se rechazan. */
+@SpringBootTest
+class ImportacionEstudiantesTests {
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String sufijo;
+
+    @BeforeEach
+    void setUp() {
+        sufijo = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM estudiante WHERE dni LIKE ?", sufijo + "-%");
+    }
+
+    @Test
+    void importaLasFilasValidasYRechazaLasDemasPorLinea() {
+        String csv = "nombre,apellido,dni,email,fechaNacimiento,activo\n"
+                + fila(1, "2004-01-01", "si")
+                + fila(2, "2004-01-01", "0")
+                + fila(3, "2004-01-01", "quizas")
+                + fila(4, "01/01/2004", "true")
+                + "\"Ana, \"\"la\"\"\",Pérez," + sufijo + "-5,e5." + sufijo + "@est.edu,2004-01-01,\n"
+                + fila(1, "2004-01-01", "1");
+
+        EstudianteImportResponseDto resultado = estudianteService.importar(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(resultado.total()).isEqualTo(6);
+        assertThat(resultado.importados()).isEqualTo(3);
+        assertThat(resultado.rechazos()).extracting(EstudianteImportItemResponseDto::linea).containsExactly(4L, 5L, 7L);
+        assertThat(resultado.rechazos().get(0).mensaje()).contains("activo");
+        assertThat(resultado.rechazos().get(1).mensaje()).contains("fechaNacimiento");
+        assertThat(resultado.rechazos().get(2).mensaje()).contains("Ya existe un estudiante con DNI");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT activo FROM estudiante WHERE dni = ?",
+                Boolean.class, sufijo + "-1")).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT activo FROM estudiante WHERE dni = ?",
+                Boolean.class, sufijo + "-2")).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT nombre FROM estudiante WHERE dni = ?",
+                String.class, sufijo + "-5")).isEqualTo("Ana, \"la\"");
+    }
+
+    private String fila(int i, String fechaNacimiento, String activo) {
+        return "Est,Importado," + sufijo + "-" + i + ",e" + i + "." + sufijo + "@est.edu," + fechaNacimiento + ","
+                + activo + "\n";
+    }
+}
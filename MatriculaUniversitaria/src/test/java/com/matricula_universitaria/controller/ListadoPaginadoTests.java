@@ -0,0 +1,134 @@
+package com.matricula_universitaria.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Recorre el listado de estudiantes por páginas encadenando {@code X-Next-Cursor}, y en NDJSON. */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListadoPaginadoTests {
+
+    // El límite máximo (1000) más tres: dos páginas de 2 después de la primera, la última incompleta.
+    private static final int ESTUDIANTES = 1003;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String sufijo;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        sufijo = UUID.randomUUID().toString().substring(0, 8);
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < ESTUDIANTES; i++) {
+            filas.add(new Object[]{sufijo + "-" + i, "e" + i + "." + sufijo + "@est.edu", Date.valueOf(LocalDate.of(2004, 1, 1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO estudiante (nombre, apellido, dni, email, fecha_nacimiento) "
+                + "VALUES ('Est', 'Pagina', ?, ?, ?)", filas);
+        ids = jdbcTemplate.queryForList("SELECT estudiante_id FROM estudiante WHERE dni LIKE ? ORDER BY estudiante_id",
+                Long.class, sufijo + "-%");
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM estudiante WHERE dni LIKE ?", sufijo + "-%");
+    }
+
+    @Test
+    void lasPaginasSeEncadenanConElCursorHastaLaUltima() throws Exception {
+        long antes = ids.get(0) - 1;
+
+        // Un limit por encima del máximo se recorta a 1000.
+        MockHttpServletResponse primera = mockMvc.perform(get("/api/estudiantes")
+                        .param("after", String.valueOf(antes)).param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ListadoResponses.SIGUIENTE_CURSOR_HEADER, ids.get(999).toString()))
+                .andReturn().getResponse();
+        assertThat(idsDe(primera.getContentAsString())).containsExactlyElementsOf(ids.subList(0, 1000));
+
+        // after es exclusivo: la página siguiente empieza justo después del cursor.
+        String cursor = primera.getHeader(ListadoResponses.SIGUIENTE_CURSOR_HEADER);
+        MockHttpServletResponse segunda = mockMvc.perform(get("/api/estudiantes")
+                        .param("after", cursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ListadoResponses.SIGUIENTE_CURSOR_HEADER, ids.get(1001).toString()))
+                .andReturn().getResponse();
+        assertThat(idsDe(segunda.getContentAsString())).containsExactly(ids.get(1000), ids.get(1001));
+
+        MockHttpServletResponse ultima = mockMvc.perform(get("/api/estudiantes")
+                        .param("after", segunda.getHeader(ListadoResponses.SIGUIENTE_CURSOR_HEADER)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ListadoResponses.SIGUIENTE_CURSOR_HEADER))
+                .andReturn().getResponse();
+        assertThat(idsDe(ultima.getContentAsString())).containsExactly(ids.get(1002));
+    }
+
+    @Test
+    void unLimitNoPositivoUsaElLimitePorDefecto() throws Exception {
+        MockHttpServletResponse pagina = mockMvc.perform(get("/api/estudiantes")
+                        .param("after", String.valueOf(ids.get(0) - 1)).param("limit", "0"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ListadoResponses.SIGUIENTE_CURSOR_HEADER, ids.get(99).toString()))
+                .andReturn().getResponse();
+        assertThat(idsDe(pagina.getContentAsString())).containsExactlyElementsOf(ids.subList(0, 100));
+    }
+
+    @Test
+    void ndjsonEmiteUnObjetoPorLineaDesdeElCursor() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/estudiantes")
+                        .param("format", "ndjson").param("after", ids.get(1000).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ListadoResponses.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(cuerpo).endsWith("\n");
+        List<Long> recibidos = new ArrayList<>();
+        for (String linea : cuerpo.split("\n")) {
+            JsonNode estudiante = objectMapper.readTree(linea);
+            assertThat(estudiante.isObject()).isTrue();
+            recibidos.add(estudiante.get("id").asLong());
+        }
+        assertThat(recibidos).containsExactly(ids.get(1001), ids.get(1002));
+    }
+
+    private List<Long> idsDe(String json) throws Exception {
+        List<Long> recibidos = new ArrayList<>();
+        objectMapper.readTree(json).forEach(estudiante -> recibidos.add(estudiante.get("id").asLong()));
+        return recibidos;
+    }
+}
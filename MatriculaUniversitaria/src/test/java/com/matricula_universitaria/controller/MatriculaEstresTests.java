@@ -0,0 +1,196 @@
+package com.matricula_universitaria.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matrículas concurrentes por HTTP contra unas pocas secciones con más demanda que vacantes. Muchas solicitudes
+ * repiten el mismo par estudiante-sección, así que compiten a la vez por la vacante y por {@code uk_matricula}.
+ * Solo se ejecuta con {@code mvn test -Pestres}. El tamaño se ajusta con {@code -Destres.solicitudes} y
+ * {@code -Destres.concurrencia}; el rendimiento medido se escribe en {@code target/estres-matricula.txt}.
+ */
+@Slf4j
+@Tag("estres")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "matricula.outbox.relay-habilitado=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"})
+class MatriculaEstresTests {
+
+    private static final int SOLICITUDES = Integer.getInteger("estres.solicitudes", 20_000);
+    private static final int CONCURRENCIA = Integer.getInteger("estres.concurrencia", 64);
+    private static final int SECCIONES = 4;
+    private static final int CAPACIDAD = 400;
+    private static final int ESTUDIANTES = 1_000;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long profesorId;
+    private Long cursoId;
+    private final List<Long> secciones = new ArrayList<>();
+    private final List<Long> estudiantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Estrés', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso de estrés', 4, 1) RETURNING curso_id", Long.class, "E" + sufijo);
+        for (int i = 0; i < SECCIONES; i++) {
+            secciones.add(jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                    + "capacidad_maxima, periodo_academico) VALUES (?, ?, ?, ?, '2026-I') RETURNING seccion_id",
+                    Long.class, cursoId, profesorId, "S" + i, CAPACIDAD));
+        }
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < ESTUDIANTES; i++) {
+            filas.add(new Object[]{sufijo + "-" + i, "e" + i + "." + sufijo + "@est.edu", LocalDate.of(2004, 1, 1)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO estudiante (nombre, apellido, dni, email, fecha_nacimiento) "
+                + "VALUES ('Est', 'Estrés', ?, ?, ?)", filas);
+        estudiantes.addAll(jdbcTemplate.queryForList(
+                "SELECT estudiante_id FROM estudiante WHERE dni LIKE ? ORDER BY estudiante_id", Long.class, sufijo + "-%"));
+    }
+
+    @AfterEach
+    void limpiar() {
+        String enSecciones = secciones.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                + "(SELECT matricula_id FROM matricula WHERE seccion_id IN (" + enSecciones + "))");
+        jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id IN (" + enSecciones + ")");
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id IN (" + enSecciones + ")");
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+        jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id IN ("
+                + estudiantes.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")");
+    }
+
+    @Test
+    void sinDuplicadosNiSobrecupoNiErroresInternos() throws Exception {
+        Random aleatorio = new Random(42);
+        Map<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+        Map<String, LongAdder> mensajes = new ConcurrentHashMap<>();
+        long[] latencias = new long[SOLICITUDES];
+        Semaphore enVuelo = new Semaphore(CONCURRENCIA);
+        CountDownLatch terminadas = new CountDownLatch(SOLICITUDES);
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        URI uri = URI.create("http://localhost:" + puerto + "/api/matriculas");
+
+        List<String> cuerpos = new ArrayList<>(SOLICITUDES);
+        while (cuerpos.size() < SOLICITUDES) {
+            // Uno de cada diez es ANULADO: no reserva vacante y compite solo por uk_matricula.
+            String cuerpo = "{\"estudianteId\":" + estudiantes.get(aleatorio.nextInt(ESTUDIANTES))
+                    + ",\"seccionId\":" + secciones.get(aleatorio.nextInt(SECCIONES))
+                    + ",\"estado\":\"" + (aleatorio.nextInt(10) == 0 ? "ANULADO" : "PENDIENTE") + "\",\"costo\":100}";
+            // Ráfagas del mismo par, como un doble clic o un reintento del cliente: llegan a la vez.
+            for (int r = 1 + aleatorio.nextInt(3); r > 0 && cuerpos.size() < SOLICITUDES; r--) {
+                cuerpos.add(cuerpo);
+            }
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < SOLICITUDES; i++) {
+            int indice = i;
+            HttpRequest peticion = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpos.get(i))).build();
+            enVuelo.acquire();
+            long enviada = System.nanoTime();
+            cliente.sendAsync(peticion, HttpResponse.BodyHandlers.ofString()).whenComplete((respuesta, error) -> {
+                latencias[indice] = System.nanoTime() - enviada;
+                int estado = error != null ? -1 : respuesta.statusCode();
+                estados.computeIfAbsent(estado, e -> new LongAdder()).increment();
+                if (estado >= 400 || estado < 0) {
+                    String mensaje = error != null ? error.toString() : respuesta.body()
+                            .replaceAll(".*\"message\":\"([^\"]*)\".*", "$1").replaceAll("\\d+", "#");
+                    mensajes.computeIfAbsent(estado + " " + mensaje, m -> new LongAdder()).increment();
+                }
+                enVuelo.release();
+                terminadas.countDown();
+            });
+        }
+        terminadas.await();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<Integer, Long> porEstado = new TreeMap<>();
+        estados.forEach((estado, total) -> porEstado.put(estado, total.sum()));
+        registrar(segundos, latencias, porEstado, mensajes);
+
+        assertThat(porEstado.keySet()).as("códigos de respuesta %s", mensajes).containsOnly(201, 400);
+        String enSecciones = secciones.stream().map(String::valueOf).collect(Collectors.joining(","));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM matricula WHERE seccion_id IN ("
+                + enSecciones + ")", Long.class)).isEqualTo(porEstado.get(201));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM (SELECT 1 FROM matricula WHERE seccion_id IN ("
+                + enSecciones + ") GROUP BY estudiante_id, seccion_id HAVING count(*) > 1) d", Long.class)).isZero();
+        for (Long seccionId : secciones) {
+            Map<String, Object> ocupacion = jdbcTemplate.queryForMap("SELECT s.inscritos, s.capacidad_maxima, "
+                    + "(SELECT count(*) FROM matricula m WHERE m.seccion_id = s.seccion_id AND m.estado <> 'ANULADO') "
+                    + "AS ocupadas FROM seccion s WHERE s.seccion_id = ?", seccionId);
+            assertThat(((Number) ocupacion.get("ocupadas")).intValue())
+                    .isEqualTo(ocupacion.get("inscritos"))
+                    .isEqualTo(CAPACIDAD);
+        }
+        assertThat(mensajes.keySet()).anyMatch(m -> m.contains("ya está matriculado"));
+    }
+
+    private void registrar(double segundos, long[] latencias, Map<Integer, Long> porEstado,
+                           Map<String, LongAdder> mensajes) throws Exception {
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        String informe = String.format("solicitudes=%d concurrencia=%d secciones=%d capacidad=%d estudiantes=%d%n"
+                        + "duracion=%.1f s rendimiento=%.0f req/s%n"
+                        + "latencia p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n"
+                        + "estados=%s%n"
+                        + "rechazos=%s%n",
+                SOLICITUDES, CONCURRENCIA, SECCIONES, CAPACIDAD, ESTUDIANTES, segundos, SOLICITUDES / segundos,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.90), percentil(ordenadas, 0.99),
+                ordenadas[ordenadas.length - 1] / 1e6, porEstado,
+                new TreeMap<>(mensajes.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum()))));
+        log.info("Estrés de matrícula:\n{}", informe);
+        Files.writeString(Path.of("target", "estres-matricula.txt"), informe);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+    }
+}
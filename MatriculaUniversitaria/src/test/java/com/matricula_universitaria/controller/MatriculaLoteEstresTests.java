@@ -0,0 +1,142 @@
+package com.matricula_universitaria.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rendimiento de {@code POST /api/matriculas/batch}: lotes de {@code estres.lote.filas} matrículas (10000 por
+ * defecto) por HTTP contra secciones con vacantes para todas. Exige al menos {@code estres.lote.minimo} matrículas
+ * por segundo (10000) en el mejor lote tras el de calentamiento. Solo se ejecuta con {@code mvn test -Pestres}; el
+ * resultado se escribe en {@code target/estres-lote.txt}.
+ */
+@Slf4j
+@Tag("estres")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "matricula.outbox.relay-habilitado=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"})
+class MatriculaLoteEstresTests {
+
+    private static final int FILAS = Integer.getInteger("estres.lote.filas", 10_000);
+    private static final int LOTES = Integer.getInteger("estres.lote.repeticiones", 3);
+    private static final double MINIMO = Double.parseDouble(System.getProperty("estres.lote.minimo", "10000"));
+    private static final int CAPACIDAD = 400;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long profesorId;
+    private Long cursoId;
+    private final List<Long> secciones = new ArrayList<>();
+    private final List<Long> estudiantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Lote', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso de lote', 4, 1) RETURNING curso_id", Long.class, "L" + sufijo);
+        // Secciones sin horario: cada estudiante se matricula en una por lote y no hay cruces que rechazar.
+        for (int i = 0; i < (FILAS + CAPACIDAD - 1) / CAPACIDAD * LOTES; i++) {
+            secciones.add(jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                    + "capacidad_maxima, periodo_academico) VALUES (?, ?, ?, ?, '2026-I') RETURNING seccion_id",
+                    Long.class, cursoId, profesorId, "S" + i, CAPACIDAD));
+        }
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < FILAS; i++) {
+            filas.add(new Object[]{sufijo + "-" + i, "e" + i + "." + sufijo + "@est.edu", LocalDate.of(2004, 1, 1)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO estudiante (nombre, apellido, dni, email, fecha_nacimiento) "
+                + "VALUES ('Est', 'Lote', ?, ?, ?)", filas);
+        estudiantes.addAll(jdbcTemplate.queryForList(
+                "SELECT estudiante_id FROM estudiante WHERE dni LIKE ? ORDER BY estudiante_id", Long.class, sufijo + "-%"));
+    }
+
+    @AfterEach
+    void limpiar() {
+        String enSecciones = secciones.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                + "(SELECT matricula_id FROM matricula WHERE seccion_id IN (" + enSecciones + "))");
+        jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id IN (" + enSecciones + ")");
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id IN (" + enSecciones + ")");
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+        jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id IN ("
+                + estudiantes.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")");
+    }
+
+    @Test
+    void insertaDiezMilMatriculasPorSegundo() throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + puerto + "/api/matriculas/batch");
+        int seccionesPorLote = secciones.size() / LOTES;
+        List<Double> rendimientos = new ArrayList<>();
+
+        for (int lote = 0; lote < LOTES; lote++) {
+            StringBuilder cuerpo = new StringBuilder("[");
+            for (int i = 0; i < FILAS; i++) {
+                cuerpo.append(i == 0 ? "" : ",").append("{\"estudianteId\":").append(estudiantes.get(i))
+                        .append(",\"seccionId\":").append(secciones.get(lote * seccionesPorLote + i / CAPACIDAD))
+                        .append(",\"estado\":\"PENDIENTE\",\"costo\":100,\"metodoPago\":\"TARJETA\"}");
+            }
+            HttpRequest peticion = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo.append(']').toString())).build();
+
+            long inicio = System.nanoTime();
+            HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            assertThat(respuesta.statusCode()).as(respuesta.body()).isEqualTo(200);
+            JsonNode resultado = objectMapper.readTree(respuesta.body());
+            assertThat(resultado.get("creadas").asInt()).as(respuesta.body()).isEqualTo(FILAS);
+            rendimientos.add(FILAS / segundos);
+        }
+
+        String enSecciones = secciones.stream().map(String::valueOf).collect(Collectors.joining(","));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM matricula WHERE seccion_id IN ("
+                + enSecciones + ")", Long.class)).isEqualTo((long) FILAS * LOTES);
+
+        double mejor = rendimientos.subList(Math.min(1, LOTES - 1), LOTES).stream()
+                .mapToDouble(Double::doubleValue).max().orElseThrow();
+        String informe = String.format("filas=%d lotes=%d cpus=%d%nrendimiento por lote=%s matrículas/s%n"
+                        + "mejor tras calentamiento=%.0f matrículas/s (mínimo exigido %.0f)%n",
+                FILAS, LOTES, Runtime.getRuntime().availableProcessors(),
+                rendimientos.stream().map(r -> String.format("%.0f", r)).toList(), mejor, MINIMO);
+        log.info("Estrés de matrícula por lotes:\n{}", informe);
+        Files.writeString(Path.of("target", "estres-lote.txt"), informe);
+        assertThat(mejor).as(informe).isGreaterThanOrEqualTo(MINIMO);
+    }
+}
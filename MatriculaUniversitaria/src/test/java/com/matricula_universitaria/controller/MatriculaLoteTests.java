@@ -0,0 +1,120 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaBatchItemResponseDto;
+import com.matricula_universitaria.dto.MatriculaBatchResponseDto;
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.exceptions.BadRequestException;
+import com.matricula_universitaria.service.MatriculaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Un lote y matrículas individuales compiten por los mismos pares estudiante-sección. */
+@SpringBootTest
+class MatriculaLoteTests {
+
+    private static final int ESTUDIANTES = 40;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long profesorId;
+    private Long cursoId;
+    private Long seccionId;
+    private final List<Long> estudiantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Lote', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso de lote', 4, 1) RETURNING curso_id", Long.class, "L" + sufijo);
+        seccionId = jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                + "capacidad_maxima, periodo_academico) VALUES (?, ?, 'S1', 100, '2026-I') RETURNING seccion_id",
+                Long.class, cursoId, profesorId);
+        for (int i = 0; i < ESTUDIANTES; i++) {
+            estudiantes.add(jdbcTemplate.queryForObject("INSERT INTO estudiante (nombre, apellido, dni, email, "
+                    + "fecha_nacimiento) VALUES ('Est', 'Lote', ?, ?, ?) RETURNING estudiante_id", Long.class,
+                    sufijo + "-" + i, "e" + i + "." + sufijo + "@est.edu", LocalDate.of(2004, 1, 1)));
+        }
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                + "(SELECT matricula_id FROM matricula WHERE seccion_id = ?)", seccionId);
+        jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id = ?", seccionId);
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id = ?", seccionId);
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+        jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id IN ("
+                + estudiantes.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")");
+    }
+
+    @Test
+    void cadaParSeMatriculaUnaVezYElLoteInformaLosRechazosPorFila() throws Exception {
+        List<MatriculaRequestDto> lote = estudiantes.stream().map(this::solicitud).toList();
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> individuales = new ArrayList<>();
+        Future<MatriculaBatchResponseDto> porLote;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            porLote = executor.submit(() -> {
+                salida.await();
+                return matriculaService.crearLote(lote);
+            });
+            for (Long estudianteId : estudiantes) {
+                individuales.add(executor.submit(() -> {
+                    salida.await();
+                    return matriculaService.crear(solicitud(estudianteId));
+                }));
+            }
+            salida.countDown();
+        }
+
+        int creadasIndividuales = 0;
+        for (Future<?> individual : individuales) {
+            try {
+                individual.get();
+                creadasIndividuales++;
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(BadRequestException.class)
+                        .hasMessageContaining("ya está matriculado");
+            }
+        }
+        MatriculaBatchResponseDto resultado = porLote.get();
+        assertThat(resultado.resultados()).filteredOn(r -> !r.creada())
+                .extracting(MatriculaBatchItemResponseDto::mensaje)
+                .allMatch(m -> m.contains("ya está matriculado"));
+
+        assertThat(resultado.creadas() + creadasIndividuales).isEqualTo(ESTUDIANTES);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM matricula WHERE seccion_id = ?",
+                Integer.class, seccionId)).isEqualTo(ESTUDIANTES);
+        assertThat(jdbcTemplate.queryForObject("SELECT inscritos FROM seccion WHERE seccion_id = ?",
+                Integer.class, seccionId)).isEqualTo(ESTUDIANTES);
+    }
+
+    private MatriculaRequestDto solicitud(Long estudianteId) {
+        return new MatriculaRequestDto(estudianteId, seccionId, null, "PENDIENTE", BigDecimal.TEN, null);
+    }
+}
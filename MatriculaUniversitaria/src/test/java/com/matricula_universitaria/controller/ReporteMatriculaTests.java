@@ -0,0 +1,123 @@
+package com.matricula_universitaria.controller;
+
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.dto.MatriculasPorCursoResponseDto;
+import com.matricula_universitaria.repository.MatriculaRepository;
+import com.matricula_universitaria.service.MatriculaService;
+import com.matricula_universitaria.service.ReporteMatriculaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/** El recálculo del reporte no bloquea las matrículas mientras corre su consulta y no pierde ni duplica aportes. */
+@SpringBootTest
+class ReporteMatriculaTests {
+
+    @Autowired
+    private ReporteMatriculaService reporteMatriculaService;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @MockitoSpyBean
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String periodo;
+    private Long profesorId;
+    private Long cursoId;
+    private Long seccionId;
+    private Long antesId;
+    private Long duranteId;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+        periodo = "R-" + sufijo;
+        profesorId = jdbcTemplate.queryForObject("INSERT INTO profesor (nombre, apellido, dni, email) "
+                + "VALUES ('Reporte', 'Prueba', ?, ?) RETURNING profesor_id", Long.class, "P" + sufijo, sufijo + "@prof.edu");
+        cursoId = jdbcTemplate.queryForObject("INSERT INTO curso (codigo, nombre, creditos, nivel_semestre) "
+                + "VALUES (?, 'Curso de reporte', 4, 1) RETURNING curso_id", Long.class, "R" + sufijo);
+        seccionId = jdbcTemplate.queryForObject("INSERT INTO seccion (curso_id, profesor_id, codigo, "
+                + "capacidad_maxima, periodo_academico) VALUES (?, ?, 'S1', 30, ?) RETURNING seccion_id",
+                Long.class, cursoId, profesorId, periodo);
+        antesId = estudiante(sufijo + "-1");
+        duranteId = estudiante(sufijo + "-2");
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM evento_outbox WHERE agregado_id IN "
+                + "(SELECT matricula_id FROM matricula WHERE seccion_id = ?)", seccionId);
+        jdbcTemplate.update("DELETE FROM matricula WHERE seccion_id = ?", seccionId);
+        jdbcTemplate.update("DELETE FROM seccion WHERE seccion_id = ?", seccionId);
+        jdbcTemplate.update("DELETE FROM curso WHERE curso_id = ?", cursoId);
+        jdbcTemplate.update("DELETE FROM profesor WHERE profesor_id = ?", profesorId);
+        jdbcTemplate.update("DELETE FROM estudiante WHERE estudiante_id IN (?, ?)", antesId, duranteId);
+        reporteMatriculaService.recalcular();
+    }
+
+    @Test
+    void lasMatriculasConfirmadasDuranteElRecalculoNoEsperanYSeCuentanUnaVez() throws Exception {
+        matriculaService.crear(solicitud(antesId));
+
+        CountDownLatch enConsulta = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        doAnswer(invocacion -> {
+            enConsulta.countDown();
+            continuar.await(30, TimeUnit.SECONDS);
+            // El espía de un repositorio delega en el proxy real a través de su respuesta por defecto.
+            return mockingDetails(matriculaRepository).getMockCreationSettings().getDefaultAnswer().answer(invocacion);
+        }).when(matriculaRepository).findResumen();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> recalculo = executor.submit(() -> reporteMatriculaService.recalcular());
+            assertThat(enConsulta.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // Con el recálculo a mitad de su consulta, una matrícula confirma sin esperarlo.
+            executor.submit(() -> matriculaService.crear(solicitud(duranteId))).get(10, TimeUnit.SECONDS);
+            assertThat(matriculados()).isEqualTo(2);
+
+            continuar.countDown();
+            recalculo.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(matriculados()).isEqualTo(2);
+    }
+
+    private long matriculados() {
+        return reporteMatriculaService.obtener(periodo).porCurso().stream()
+                .filter(c -> c.cursoId().equals(cursoId))
+                .mapToLong(MatriculasPorCursoResponseDto::matriculados)
+                .sum();
+    }
+
+    private MatriculaRequestDto solicitud(Long estudianteId) {
+        return new MatriculaRequestDto(estudianteId, seccionId, null, "PENDIENTE", BigDecimal.TEN, null);
+    }
+
+    private Long estudiante(String dni) {
+        return jdbcTemplate.queryForObject("INSERT INTO estudiante (nombre, apellido, dni, email, fecha_nacimiento) "
+                + "VALUES ('Est', 'Reporte', ?, ?, ?) RETURNING estudiante_id", Long.class,
+                dni, dni + "@est.edu", LocalDate.of(2004, 1, 1));
+    }
+}
@@ -0,0 +1,65 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.config.ContadorConsultas;
+import com.matricula_universitaria.dto.MatriculaRequestDto;
+import com.matricula_universitaria.dto.MatriculaResponseDto;
+import com.matricula_universitaria.service.MatriculaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdmisionMatriculaServiceTests {
+
+    private final MatriculaService matriculaService = mock(MatriculaService.class);
+    private final AdmisionMatriculaServiceImpl admision = new AdmisionMatriculaServiceImpl(
+            matriculaService, new ContadorConsultas(), new SimpleMeterRegistry(), 1, 10, 10000);
+
+    @AfterEach
+    void cerrar() {
+        admision.cerrar();
+    }
+
+    @Test
+    void lasSeccionesSeAtiendenPorTurnos() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Long> atendidas = new CopyOnWriteArrayList<>();
+        when(matriculaService.crear(any())).thenAnswer(invocacion -> {
+            MatriculaRequestDto request = invocacion.getArgument(0);
+            atendidas.add(request.estudianteId());
+            enCurso.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+
+        CompletableFuture<MatriculaResponseDto> primera = admision.crear(solicitud(1L, 10L));
+        assertThat(enCurso.await(5, TimeUnit.SECONDS)).isTrue();
+        // Tres más para la sección 10 y luego una para la 20, mientras el único permiso está ocupado.
+        List<CompletableFuture<MatriculaResponseDto>> encoladas = List.of(
+                admision.crear(solicitud(2L, 10L)), admision.crear(solicitud(3L, 10L)),
+                admision.crear(solicitud(4L, 10L)), admision.crear(solicitud(5L, 20L)));
+        liberar.countDown();
+
+        primera.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<MatriculaResponseDto> encolada : encoladas) {
+            encolada.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(atendidas).containsExactly(1L, 2L, 5L, 3L, 4L);
+    }
+
+    private static MatriculaRequestDto solicitud(Long estudianteId, Long seccionId) {
+        return new MatriculaRequestDto(estudianteId, seccionId, null, "PENDIENTE", BigDecimal.TEN, null);
+    }
+}
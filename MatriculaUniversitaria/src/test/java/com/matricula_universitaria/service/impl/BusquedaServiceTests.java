@@ -0,0 +1,51 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.dto.BusquedaResponseDto;
+import com.matricula_universitaria.entity.Estudiante;
+import com.matricula_universitaria.repository.ScrollRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class BusquedaServiceTests {
+
+    private final ScrollRepository scrollRepository = mock(ScrollRepository.class);
+    private final BusquedaServiceImpl busquedaService = new BusquedaServiceImpl(scrollRepository);
+
+    @Test
+    void losCambiosConfirmadosDuranteLaReconstruccionNoSePierden() {
+        Estudiante ana = estudiante(1L, "Ana", "Quispe");
+        Estudiante luis = estudiante(2L, "Luis", "Mamani");
+        busquedaService.indexarEstudiante(ana);
+        busquedaService.indexarEstudiante(luis);
+
+        doAnswer(invocacion -> {
+            Consumer<Estudiante> consumer = invocacion.getArgument(1);
+            // La lectura ya tomó su instantánea: estos cambios se confirman mientras se recorre.
+            busquedaService.indexarEstudiante(estudiante(1L, "Ana", "Huamán"));
+            busquedaService.eliminarEstudiante(2L);
+            busquedaService.indexarEstudiante(estudiante(3L, "Rosa", "Condori"));
+            consumer.accept(ana);
+            consumer.accept(luis);
+            return null;
+        }).when(scrollRepository).recorrerEstudiantes(anyLong(), any());
+
+        busquedaService.recargarEstudiantes();
+
+        assertThat(busquedaService.buscarEstudiantes("Huamán", null)).extracting(BusquedaResponseDto::id).containsExactly(1L);
+        assertThat(busquedaService.buscarEstudiantes("Quispe", null)).isEmpty();
+        assertThat(busquedaService.buscarEstudiantes("Mamani", null)).isEmpty();
+        assertThat(busquedaService.buscarEstudiantes("Condori", null)).extracting(BusquedaResponseDto::id).containsExactly(3L);
+    }
+
+    private static Estudiante estudiante(Long id, String nombre, String apellido) {
+        return Estudiante.builder().id(id).nombre(nombre).apellido(apellido)
+                .dni("D" + id).email(id + "@est.edu").build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.matricula_universitaria.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HorarioSemanalTests {
+
+    @Test
+    void diasDelanteDeLasHoras() {
+        HorarioSemanal lunesMiercoles = HorarioSemanal.parsear("Lun-Mie 8:00-10:00", null);
+
+        assertThat(lunesMiercoles.seCruzaCon(HorarioSemanal.parsear("Mar 9:00-11:00", null))).isFalse();
+        assertThat(lunesMiercoles.seCruzaCon(HorarioSemanal.parsear("Mie 9:00-11:00", null))).isTrue();
+        assertThat(lunesMiercoles.seCruzaCon(HorarioSemanal.parsear("Mie 10:00-12:00", null))).isFalse();
+        assertThat(lunesMiercoles.seCruzaCon(HorarioSemanal.parsear("Jue 8:00-10:00", null))).isFalse();
+    }
+
+    @Test
+    void guionEsListaYRangoSoloExplicito() {
+        HorarioSemanal lista = HorarioSemanal.parsear("08:00-10:00", "Lunes-Miércoles");
+        assertThat(lista.seCruzaCon(HorarioSemanal.parsear("Mar 8:00-10:00", null))).isFalse();
+
+        for (String rango : new String[]{"Lun a Mie", "Lunes al Miércoles", "Lun..Mie"}) {
+            HorarioSemanal horario = HorarioSemanal.parsear("08:00-10:00", rango);
+            assertThat(horario.seCruzaCon(HorarioSemanal.parsear("Mar 8:00-10:00", null))).as(rango).isTrue();
+            assertThat(horario.seCruzaCon(HorarioSemanal.parsear("Jue 8:00-10:00", null))).as(rango).isFalse();
+        }
+    }
+
+    @Test
+    void listaDeDiasYVariosBloques() {
+        HorarioSemanal horario = HorarioSemanal.parsear("Lun-Mie-Vie 14:00-16:00; Sáb 8-10", null);
+
+        assertThat(horario.seCruzaCon(HorarioSemanal.parsear("Mar 14:00-16:00", null))).isFalse();
+        assertThat(horario.seCruzaCon(HorarioSemanal.parsear("Viernes 15:45-17:00", null))).isTrue();
+        assertThat(horario.seCruzaCon(HorarioSemanal.parsear("sabado 9-9:15", null))).isTrue();
+    }
+
+    @Test
+    void diasEnCampoSeparado() {
+        HorarioSemanal horario = HorarioSemanal.parsear("08:00-10:00", "Lunes, Miércoles");
+
+        assertThat(horario.seCruzaCon(HorarioSemanal.parsear("Mie 9:30-11:00", null))).isTrue();
+        assertThat(horario.seCruzaCon(HorarioSemanal.parsear("09:00-11:00", "Martes y Jueves"))).isFalse();
+    }
+
+    @Test
+    void textoNoInterpretableNoOcupaFranjas() {
+        assertThat(HorarioSemanal.parsear("Por definir", null).esVacio()).isTrue();
+        assertThat(HorarioSemanal.parsear("8:00-10:00", null).esVacio()).isTrue();
+        assertThat(HorarioSemanal.parsear(null, "Lun").esVacio()).isTrue();
+    }
+}
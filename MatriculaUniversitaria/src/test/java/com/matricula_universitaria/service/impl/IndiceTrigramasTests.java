@@ -0,0 +1,43 @@
+package com.matricula_universitaria.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTrigramasTests {
+
+    @Test
+    void ordenaPorCoincidenciaExactaInicioDePalabraYSubcadena() {
+        IndiceTrigramas<String> indice = new IndiceTrigramas<>();
+        indice.indexar(1, "gomez", "Ana", "Gómez", "11111111", "ana@uni.edu");
+        indice.indexar(2, "perez", "Luis", "Pérez", "22222222", "lperez@uni.edu");
+        indice.indexar(3, "perezagua", "Rosa", "Perezagua", "33333333", "rosa@uni.edu");
+        indice.indexar(4, "lopez", "Pere", "López", "44444444", "pere@uni.edu");
+
+        assertThat(indice.buscar("perez", 10)).containsExactly("perez", "perezagua");
+        assertThat(indice.buscar("PEREZ", 1)).containsExactly("perez");
+        assertThat(indice.buscar("omez", 10)).containsExactly("gomez");
+        assertThat(indice.buscar("22222222", 10)).containsExactly("perez");
+        assertThat(indice.buscar("pe", 10)).containsExactly("lopez", "perez", "perezagua");
+        assertThat(indice.buscar("x", 10)).isEmpty();
+        assertThat(indice.buscar("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    void reindexarYEliminarActualizanLosResultados() {
+        IndiceTrigramas<String> indice = new IndiceTrigramas<>();
+        for (int i = 0; i < 3000; i++) {
+            indice.indexar(i, "v" + i, "Nombre" + i, "Apellido", String.valueOf(i), i + "@uni.edu");
+        }
+        for (int i = 0; i < 2000; i++) {
+            indice.indexar(i, "w" + i, "Otro" + i, "Apellido", String.valueOf(i), i + "@uni.edu");
+        }
+        indice.eliminar(2500);
+
+        assertThat(indice.tamano()).isEqualTo(2999);
+        assertThat(indice.buscar("nombre1500", 10)).isEmpty();
+        assertThat(indice.buscar("otro1500", 10)).containsExactly("w1500");
+        assertThat(indice.buscar("nombre2500", 10)).isEmpty();
+        assertThat(indice.buscar("nombre2999", 10)).containsExactly("v2999");
+    }
+}
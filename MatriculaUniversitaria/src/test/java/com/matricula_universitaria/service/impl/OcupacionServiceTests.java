@@ -0,0 +1,41 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.dto.OcupacionSeccionResponseDto;
+import com.matricula_universitaria.repository.SeccionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OcupacionServiceTests {
+
+    private final SeccionRepository seccionRepository = mock(SeccionRepository.class);
+    private final OcupacionServiceImpl ocupacionService = new OcupacionServiceImpl(seccionRepository);
+
+    @Test
+    void losCambiosConfirmadosDuranteLaResincronizacionNoSePierden() {
+        when(seccionRepository.findOcupaciones()).thenReturn(List.of(fila(1L, 5, 30), fila(2L, 3, 20)));
+        ocupacionService.recargar();
+
+        when(seccionRepository.findOcupaciones()).thenAnswer(invocacion -> {
+            // La consulta ya tomó su instantánea: estos cambios se confirman mientras se leen las filas.
+            ocupacionService.ajustarInscritos(1L, 1);
+            ocupacionService.registrarSeccion(3L, 25);
+            ocupacionService.eliminarSeccion(2L);
+            return List.of(fila(1L, 5, 30), fila(2L, 3, 20));
+        });
+        ocupacionService.recargar();
+
+        assertThat(ocupacionService.buscar(1L)).map(OcupacionSeccionResponseDto::inscritos).contains(6);
+        assertThat(ocupacionService.buscar(2L)).isEmpty();
+        assertThat(ocupacionService.buscar(3L)).contains(OcupacionSeccionResponseDto.of(3L, 0, 25));
+        assertThat(ocupacionService.listar()).extracting(OcupacionSeccionResponseDto::seccionId).containsExactly(1L, 3L);
+    }
+
+    private static Object[] fila(Long seccionId, int inscritos, int capacidadMaxima) {
+        return new Object[]{seccionId, inscritos, capacidadMaxima};
+    }
+}
@@ -0,0 +1,97 @@
+package com.matricula_universitaria.service.impl;
+
+import com.matricula_universitaria.config.RabbitMQConfig;
+import com.matricula_universitaria.entity.EventoOutbox;
+import com.matricula_universitaria.repository.EventoOutboxRepository;
+import com.matricula_universitaria.service.OutboxService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"matricula.outbox.relay-habilitado=false", "matricula.outbox.tamano-lote=2"})
+class OutboxServiceTests {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    private final RabbitOperations operaciones = mock(RabbitOperations.class);
+    private final List<Long> creados = new ArrayList<>();
+
+    @AfterEach
+    void limpiar() {
+        eventoOutboxRepository.deleteAllByIdInBatch(creados);
+    }
+
+    @Test
+    void publicaEnLotesConConfirmacionYBorraLosEventos() {
+        simularBroker();
+        List<EventoOutbox> eventos = registrar(5);
+
+        assertThat(outboxService.publicarPendientes()).isGreaterThanOrEqualTo(5);
+
+        ArgumentCaptor<Message> mensajes = ArgumentCaptor.forClass(Message.class);
+        verify(operaciones, atLeast(5)).send(eq(RabbitMQConfig.NOTIFICATIONS_EXCHANGE),
+                eq(RabbitMQConfig.MATRICULA_ROUTING_KEY), mensajes.capture());
+        verify(operaciones, atLeast(3)).waitForConfirmsOrDie(anyLong());
+        assertThat(mensajes.getAllValues()).extracting(m -> m.getMessageProperties().getMessageId())
+                .containsAll(eventos.stream().map(e -> "evento-outbox-" + e.getId()).toList());
+        assertThat(eventoOutboxRepository.findAllById(creados)).isEmpty();
+    }
+
+    @Test
+    void conservaLosEventosSiElBrokerNoConfirma() {
+        simularBroker();
+        doThrow(new AmqpException("nack")).when(operaciones).waitForConfirmsOrDie(anyLong());
+        registrar(3);
+
+        assertThatThrownBy(() -> outboxService.publicarPendientes()).isInstanceOf(AmqpException.class);
+
+        assertThat(eventoOutboxRepository.findAllById(creados)).hasSize(3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void simularBroker() {
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocacion ->
+                invocacion.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(operaciones));
+    }
+
+    private List<EventoOutbox> registrar(int cantidad) {
+        List<EventoOutbox> eventos = eventoOutboxRepository.saveAll(IntStream.range(0, cantidad)
+                .mapToObj(i -> EventoOutbox.builder()
+                        .routingKey(RabbitMQConfig.MATRICULA_ROUTING_KEY)
+                        .agregadoId((long) i)
+                        .payload("{\"estudianteId\":" + i + "}")
+                        .build())
+                .toList());
+        eventos.forEach(e -> creados.add(e.getId()));
+        return eventos;
+    }
+}